@@ -0,0 +1,16 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+
+import java.lang.annotation.*;
+
+/**
+ * Matches on nodes that sign tokens themselves; verify-only replicas set {@code jwt.jwks-uri} instead
+ * and hold no private keys.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnExpression("'${jwt.jwks-uri:}'.isBlank()")
+public @interface ConditionalOnJwtSigning {
+}
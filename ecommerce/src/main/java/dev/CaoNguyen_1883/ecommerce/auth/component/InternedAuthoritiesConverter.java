@@ -0,0 +1,60 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.*;
+
+/**
+ * Maps the {@code roles} claim (falling back to {@code scope}/{@code scp}) to canonical, immutable authority sets.
+ * The role vocabulary is tiny, so every distinct claim value maps to one shared set
+ * and the request path allocates nothing once a combination has been seen.
+ */
+public class InternedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final List<String> CLAIMS = List.of("roles", "scope", "scp");
+
+    private final Map<String, GrantedAuthority> authorities = new HashMap<>();
+    private final Cache<Object, Collection<GrantedAuthority>> interned = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    public InternedAuthoritiesConverter() {
+        for (String role : List.of(Role.ADMIN, Role.CUSTOMER, Role.SELLER, Role.STAFF)) {
+            authorities.put(role, new SimpleGrantedAuthority(role));
+        }
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        for (String claim : CLAIMS) {
+            Object value = jwt.getClaim(claim);
+            if (value != null) {
+                return interned.get(value, this::build);
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    private Collection<GrantedAuthority> build(Object claimValue) {
+        Collection<?> names = claimValue instanceof Collection<?> collection
+                ? collection
+                : Arrays.asList(claimValue.toString().split(" "));
+        Set<GrantedAuthority> result = new LinkedHashSet<>();
+        for (Object name : names) {
+            String value = name.toString().trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            String authority = value.startsWith(ROLE_PREFIX) ? value : ROLE_PREFIX + value;
+            result.add(authorities.getOrDefault(authority, new SimpleGrantedAuthority(authority)));
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -0,0 +1,306 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * ES256 signing keys with rotation.
+ * A new key is published {@code activation-delay} before it starts signing, so verifiers holding a cached
+ * JWK set pick it up ahead of the first token; retired keys stay published until every token they signed has expired.
+ * Keys are persisted as a JWK set at {@code jwt.keys.path} so signing nodes share them across restarts.
+ * Only signing nodes have a store; startup fails without a path unless {@code jwt.keys.allow-ephemeral} is set,
+ * since per-node in-memory keys invalidate every token on restart and can't be verified by the other nodes.
+ * <p>
+ * Rotation has a single owner: a node rotates only while holding a Redis lock, and re-reads the file under it, so
+ * the first node to find the newest key due rotates and the others adopt its key. Every node re-reads the file
+ * every {@code reload-interval}, and on demand when a token arrives with a kid it doesn't know.
+ */
+@Slf4j
+@Component
+@ConditionalOnJwtSigning
+public class JwtKeyStore {
+
+    private static final RedisScript<Long> RELEASE_LOCK = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // Generating and writing one key takes milliseconds; this only bounds a crashed owner
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String lockKey;
+    private final String keysPath;
+    private final boolean allowEphemeral;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration reloadInterval;
+    private final long accessTokenExpiration;
+    private final Clock clock;
+
+    // Newest first
+    private volatile List<ECKey> keys = List.of();
+    private volatile Instant nextReload = Instant.MIN;
+    private volatile Instant nextRotationAttempt = Instant.MIN;
+
+    @Autowired
+    public JwtKeyStore(StringRedisTemplate stringRedisTemplate,
+                       @Value("${app.redis.namespace:ecommerce}") String namespace,
+                       @Value("${jwt.keys.path:}") String keysPath,
+                       // Local development only
+                       @Value("${jwt.keys.allow-ephemeral:false}") boolean allowEphemeral,
+                       @Value("${jwt.keys.rotation-interval:30d}") Duration rotationInterval,
+                       @Value("${jwt.keys.activation-delay:5m}") Duration activationDelay,
+                       @Value("${jwt.keys.reload-interval:30s}") Duration reloadInterval,
+                       @Value("${jwt.access-token-expiration}") long accessTokenExpiration) {
+        this(stringRedisTemplate, namespace, keysPath, allowEphemeral, rotationInterval, activationDelay,
+                reloadInterval, accessTokenExpiration, Clock.systemUTC());
+    }
+
+    JwtKeyStore(StringRedisTemplate stringRedisTemplate, String namespace, String keysPath, boolean allowEphemeral,
+                Duration rotationInterval, Duration activationDelay, Duration reloadInterval,
+                long accessTokenExpiration, Clock clock) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lockKey = namespace + ":jwt-keys:rotation-lock";
+        this.keysPath = keysPath;
+        this.allowEphemeral = allowEphemeral;
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.reloadInterval = reloadInterval;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        if (keysPath.isBlank() && !allowEphemeral) {
+            throw new IllegalStateException("jwt.keys.path must point to persistent storage shared by the signing nodes"
+                    + " (or set jwt.jwks-uri on verify-only nodes)");
+        }
+        if (reloadInterval.compareTo(activationDelay) >= 0) {
+            throw new IllegalStateException("jwt.keys.reload-interval (" + reloadInterval
+                    + ") must be shorter than jwt.keys.activation-delay (" + activationDelay
+                    + "), or other nodes may sign with a key this node doesn't publish yet");
+        }
+        keys = load();
+        long deadline = System.nanoTime() + LOCK_TTL.toNanos();
+        while (keys.isEmpty()) {
+            // Another node may be creating the first key right now; wait for its file rather than writing our own
+            if (!rotateIfDue() && System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("No JWT signing key appeared at " + keysPath + " within " + LOCK_TTL);
+            }
+            if (keys.isEmpty()) {
+                sleep(Duration.ofMillis(200));
+                keys = load();
+            }
+        }
+        scheduleReload();
+    }
+
+    /**
+     * Key used for signing new tokens: the newest key that has been published for at least the activation delay
+     */
+    public ECKey activeKey() {
+        reloadIfDue();
+        List<ECKey> current = keys;
+        if (isOlderThan(current.get(0), rotationInterval) && !clock.instant().isBefore(nextRotationAttempt)) {
+            rotateIfDue();
+            current = keys;
+        }
+        for (ECKey key : current) {
+            if (isOlderThan(key, activationDelay)) {
+                return key;
+            }
+        }
+        // Fresh store: nothing has been published long enough yet, sign with the only keys we have
+        return current.get(current.size() - 1);
+    }
+
+    /**
+     * Public halves of every key that may still have valid tokens in circulation
+     */
+    public JWKSet publicKeys() {
+        reloadIfDue();
+        return new JWKSet(new ArrayList<JWK>(keys)).toPublicJWKSet();
+    }
+
+    /**
+     * Re-reads the shared file first; for a kid this node hasn't seen, most likely just rotated in by another node
+     */
+    public JWKSet reloadPublicKeys() {
+        reload();
+        return new JWKSet(new ArrayList<JWK>(keys)).toPublicJWKSet();
+    }
+
+    /**
+     * How long the published JWK set may be cached. A key reaches this node's set within one reload interval of
+     * being written and signs one activation delay after that; caching for at most half the remainder means
+     * every cached copy has the key before its first token.
+     */
+    public Duration publicKeysMaxAge() {
+        return activationDelay.minus(reloadInterval).dividedBy(2);
+    }
+
+    /**
+     * Rotates if the newest key is due and no other node is rotating.
+     *
+     * @return false if another node holds the rotation lock or Redis is unreachable
+     */
+    synchronized boolean rotateIfDue() {
+        if (keysPath.isBlank()) {
+            // Ephemeral keys are this node's alone, there is nobody to coordinate with
+            if (keys.isEmpty() || isOlderThan(keys.get(0), rotationInterval)) {
+                rotate();
+            }
+            return true;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, LOCK_TTL))) {
+                // The owner's key shows up with the next reload
+                nextRotationAttempt = clock.instant().plus(reloadInterval);
+                return false;
+            }
+        } catch (DataAccessException ex) {
+            // The current key keeps signing and stays published meanwhile
+            log.warn("Could not take the JWT key rotation lock, rotation postponed: {}", ex.getMessage());
+            nextRotationAttempt = clock.instant().plus(reloadInterval);
+            return false;
+        }
+        try {
+            // Another node may have rotated since we last looked
+            keys = load();
+            scheduleReload();
+            if (keys.isEmpty() || isOlderThan(keys.get(0), rotationInterval)) {
+                rotate();
+            }
+            return true;
+        } finally {
+            try {
+                stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+            } catch (DataAccessException ex) {
+                // The lock expires on its own
+                log.warn("Could not release the JWT key rotation lock: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void rotate() {
+        ECKey key;
+        try {
+            key = new ECKeyGenerator(Curve.P_256)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .keyID(UUID.randomUUID().toString())
+                    .issueTime(Date.from(clock.instant()))
+                    .generate();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Could not generate signing key", ex);
+        }
+
+        // A retired key is kept one access-token lifetime past the moment it stopped signing
+        Duration retention = rotationInterval.plus(activationDelay).plusMillis(accessTokenExpiration);
+        List<ECKey> next = new ArrayList<>();
+        next.add(key);
+        keys.stream()
+                .filter(existing -> !isOlderThan(existing, retention))
+                .forEach(next::add);
+        save(next);
+        keys = List.copyOf(next);
+        log.info("Rotated JWT signing key, active kid {}, {} keys published", key.getKeyID(), next.size());
+    }
+
+    private void reloadIfDue() {
+        if (!keysPath.isBlank() && clock.instant().isAfter(nextReload)) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        if (keysPath.isBlank()) {
+            return;
+        }
+        List<ECKey> loaded = load();
+        // A missing file never drops the keys we are signing with
+        if (!loaded.isEmpty()) {
+            keys = loaded;
+        }
+        scheduleReload();
+    }
+
+    private void scheduleReload() {
+        nextReload = clock.instant().plus(reloadInterval);
+    }
+
+    private boolean isOlderThan(ECKey key, Duration age) {
+        Date issued = key.getIssueTime();
+        return issued != null && issued.toInstant().plus(age).isBefore(clock.instant());
+    }
+
+    private List<ECKey> load() {
+        if (keysPath.isBlank() || !Files.exists(Path.of(keysPath))) {
+            return List.of();
+        }
+        try {
+            JWKSet set = JWKSet.parse(Files.readString(Path.of(keysPath), StandardCharsets.UTF_8));
+            return set.getKeys().stream()
+                    .filter(ECKey.class::isInstance)
+                    .map(ECKey.class::cast)
+                    .sorted(Comparator.comparing(ECKey::getIssueTime, Comparator.nullsLast(Comparator.reverseOrder())))
+                    .toList();
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("Could not read JWT keys from " + keysPath, ex);
+        }
+    }
+
+    private void save(List<ECKey> next) {
+        if (keysPath.isBlank()) {
+            log.warn("jwt.keys.path is not set; signing keys are kept in memory only and change on every restart");
+            return;
+        }
+        try {
+            Path target = Path.of(keysPath);
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "jwks", ".tmp");
+            Files.writeString(temp, new JWKSet(new ArrayList<JWK>(next)).toString(false), StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not write JWT keys to " + keysPath, ex);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the JWT signing key", ex);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import dev.CaoNguyen_1883.ecommerce.auth.service.impl.RedisTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects access tokens whose jti is on the revocation list
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtRevocationValidator implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error REVOKED =
+            new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "Token has been revoked", null);
+
+    private final RedisTokenService redisTokenService;
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        return redisTokenService.isRevoked(jwt.getId())
+                ? OAuth2TokenValidatorResult.failure(REVOKED)
+                : OAuth2TokenValidatorResult.success();
+    }
+}
@@ -0,0 +1,86 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Resolves ES256 verification keys by {@code kid} from an immutable map of already parsed public keys.
+ * An unknown kid triggers one reload of the key set; reloads are serialized and rate limited,
+ * so a key rollover (or a flood of forged kids) costs at most one fetch per interval instead of one per request.
+ */
+@Slf4j
+public class KidCachingKeySelector implements JWSKeySelector<SecurityContext> {
+
+    private final Supplier<JWKSet> keySource;
+    private final long minRefreshIntervalNanos;
+
+    private volatile Map<String, PublicKey> keysByKid = Map.of();
+    private volatile long lastRefresh;
+    private boolean loaded;
+
+    public KidCachingKeySelector(Supplier<JWKSet> keySource, Duration minRefreshInterval) {
+        this.keySource = keySource;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+    }
+
+    @Override
+    public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) throws KeySourceException {
+        if (!JWSAlgorithm.ES256.equals(header.getAlgorithm()) || header.getKeyID() == null) {
+            return List.of();
+        }
+        PublicKey key = keysByKid.get(header.getKeyID());
+        if (key == null) {
+            key = reloadFor(header.getKeyID());
+        }
+        return key != null ? List.of(key) : List.of();
+    }
+
+    private synchronized PublicKey reloadFor(String kid) throws KeySourceException {
+        PublicKey key = keysByKid.get(kid);
+        if (key != null) {
+            return key;
+        }
+        long now = System.nanoTime();
+        if (loaded && now - lastRefresh < minRefreshIntervalNanos) {
+            return null;
+        }
+        lastRefresh = now;
+        loaded = true;
+
+        JWKSet set;
+        try {
+            set = keySource.get();
+        } catch (RuntimeException ex) {
+            throw new KeySourceException("Could not load JWT verification keys", ex);
+        }
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JWK jwk : set.getKeys()) {
+            if (jwk instanceof ECKey ecKey && ecKey.getKeyID() != null) {
+                try {
+                    parsed.put(ecKey.getKeyID(), ecKey.toECPublicKey());
+                } catch (JOSEException ex) {
+                    log.warn("Skipping unusable JWK {}: {}", ecKey.getKeyID(), ex.getMessage());
+                }
+            }
+        }
+        keysByKid = Map.copyOf(parsed);
+        log.info("Loaded {} JWT verification keys", parsed.size());
+        return keysByKid.get(kid);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.CaoNguyen_1883.ecommerce.common.response.ApiResponse;
+import dev.CaoNguyen_1883.ecommerce.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the per-IP limit of the first route group matching the request path.
+ * A path matching one of a group's exclude patterns is not limited by that group.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String group = matchGroup(request.getRequestURI());
+        if (group != null && !rateLimiter.tryAcquire(group, "ip:" + request.getRemoteAddr())) {
+            log.warn("Rate limit exceeded: {} at {}", request.getRemoteAddr(), request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(
+                    "Too many requests, please slow down",
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    request.getRequestURI()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    String matchGroup(String path) {
+        for (Map.Entry<String, RateLimitProperties.Group> entry : rateLimitProperties.getGroups().entrySet()) {
+            RateLimitProperties.Group group = entry.getValue();
+            if (matchesAny(group.getPatterns(), path) && !matchesAny(group.getExcludePatterns(), path)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
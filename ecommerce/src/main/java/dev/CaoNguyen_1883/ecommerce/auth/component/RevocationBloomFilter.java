@@ -0,0 +1,130 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process Bloom filter of revoked token ids.
+ * Revocations only matter until the revoked token expires, so the filter keeps two generations
+ * and rotates every {@code retention}: an id stays visible for at least one full period,
+ * and false positives from long-expired ids do not accumulate.
+ */
+public class RevocationBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long retentionMillis;
+    private final Clock clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public RevocationBloomFilter(int expectedInsertions, double falsePositiveRate, Duration retention) {
+        this(expectedInsertions, falsePositiveRate, retention, Clock.systemUTC());
+    }
+
+    RevocationBloomFilter(int expectedInsertions, double falsePositiveRate, Duration retention, Clock clock) {
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        this.current = new Generation(bitCount, clock.millis());
+        this.previous = new Generation(bitCount, clock.millis());
+    }
+
+    public void add(String id) {
+        Generation generation = rotateIfDue();
+        long h1 = hash1(id);
+        long h2 = hash2(id);
+        for (int i = 0; i < hashCount; i++) {
+            generation.set(index(h1, h2, i));
+        }
+    }
+
+    /**
+     * @return false if the id was definitely not revoked within the retention window
+     */
+    public boolean mightContain(String id) {
+        Generation generation = rotateIfDue();
+        long h1 = hash1(id);
+        long h2 = hash2(id);
+        return generation.containsAll(h1, h2) || previous.containsAll(h1, h2);
+    }
+
+    private Generation rotateIfDue() {
+        Generation generation = current;
+        long now = clock.millis();
+        if (now - generation.createdAt < retentionMillis) {
+            return generation;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bitCount, now);
+            }
+            return current;
+        }
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+    }
+
+    private static long hash1(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long hash2(String id) {
+        // Forced odd so the probe sequence never collapses onto a single bit
+        return mix(id.hashCode() * 0x9E3779B97F4A7C15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private final class Generation {
+        private final AtomicLongArray words;
+        private final long createdAt;
+
+        Generation(int bits, long createdAt) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+            this.createdAt = createdAt;
+        }
+
+        void set(int bit) {
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value;
+            do {
+                value = words.get(word);
+                if ((value & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, value, value | mask));
+        }
+
+        boolean containsAll(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = index(h1, h2, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.CaoNguyen_1883.ecommerce.auth.controller;
+
+import dev.CaoNguyen_1883.ecommerce.auth.component.ConditionalOnJwtSigning;
+import dev.CaoNguyen_1883.ecommerce.auth.component.JwtKeyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/auth/.well-known")
+@RequiredArgsConstructor
+@ConditionalOnJwtSigning
+public class JwksController {
+
+    private final JwtKeyStore jwtKeyStore;
+
+    /**
+     * Public signing keys in standard JWK Set format (not wrapped in ApiResponse).
+     * Cacheable for less than the activation delay, so no cache still serves a set without the key that is signing.
+     */
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwtKeyStore.publicKeysMaxAge()).cachePublic())
+                .body(jwtKeyStore.publicKeys().toJSONObject());
+    }
+}
@@ -1,24 +1,235 @@
 package dev.CaoNguyen_1883.ecommerce.auth.service.impl;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import dev.CaoNguyen_1883.ecommerce.auth.component.RevocationBloomFilter;
+import dev.CaoNguyen_1883.ecommerce.common.cache.RedisKeys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.DataAccessException;
-import org.springframework.data.redis.core.RedisOperations;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Refresh-token store and access-token revocation list (jti denylist) in Redis.
+ * Revocation checks consult a local Bloom filter first and only go to Redis on a possible hit;
+ * the filters on all nodes are kept in sync through a pub/sub channel.
+ * Refresh tokens live in one hash per user (jti -> expiry), so dropping all of a user's sessions touches a single
+ * key and the scripts only access the keys they declare.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RedisTokenService {
 
+    private static final RedisScript<Long> REVOKE_USER_TOKENS =
+            RedisScript.of(new ClassPathResource("scripts/revoke-user-tokens.lua"), Long.class);
 
-}
\ No newline at end of file
+    private static final RedisScript<Long> STORE_REFRESH_TOKEN =
+            RedisScript.of(new ClassPathResource("scripts/store-refresh-token.lua"), Long.class);
+
+    private static final int BULK_BATCH_SIZE = 1000;
+
+    // Plain string values so the Lua scripts can compare expiries directly
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${app.redis.namespace:ecommerce}")
+    private String namespace;
+
+    @Value("${jwt.access-token-expiration}")
+    private long accessTokenExpiration;
+
+    @Value("${jwt.refresh-token-expiration}")
+    private long refreshTokenExpiration;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private int expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private RevocationBloomFilter revokedFilter;
+
+    @PostConstruct
+    void init() {
+        revokedFilter = new RevocationBloomFilter(expectedRevocations, falsePositiveRate,
+                Duration.ofMillis(accessTokenExpiration));
+        redisMessageListenerContainer.addMessageListener(this::onRevocation, new ChannelTopic(revocationChannel()));
+    }
+
+    /**
+     * Seed the local filter with revocations made before this node started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        int prefixLength = revokedKey("").length();
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+                RedisKeys.scan(connection, revokedKey("*"), 1000, key -> {
+                    revokedFilter.add(key.substring(prefixLength));
+                    loaded.incrementAndGet();
+                });
+                return null;
+            });
+            log.info("Loaded {} revoked token ids into the local filter", loaded.get());
+        } catch (DataAccessException ex) {
+            log.warn("Could not preload revoked token ids: {}", ex.getMessage());
+        }
+    }
+
+    // ===== Refresh tokens =====
+
+    public void storeRefreshToken(String jti, String userId) {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.execute(STORE_REFRESH_TOKEN, List.of(refreshTokensKey(userId)),
+                jti, String.valueOf(now + refreshTokenExpiration), String.valueOf(now));
+    }
+
+    /**
+     * @param userId subject of the (signature-verified) refresh token; it locates the user's token hash
+     * @return false if the refresh token is unknown, expired or revoked
+     */
+    public boolean isRefreshTokenActive(String userId, String jti) {
+        Object expiresAt = stringRedisTemplate.opsForHash().get(refreshTokensKey(userId), jti);
+        return expiresAt != null && Long.parseLong(expiresAt.toString()) > System.currentTimeMillis();
+    }
+
+    /**
+     * Consumes a refresh token. The HDEL decides: of two concurrent refreshes with the same jti only one removes
+     * the field, so a token is never redeemed twice.
+     *
+     * @return false if the refresh token is unknown, expired, revoked or already consumed
+     */
+    public boolean deleteRefreshToken(String userId, String jti) {
+        String key = refreshTokensKey(userId);
+        Object expiresAt = stringRedisTemplate.opsForHash().get(key, jti);
+        if (expiresAt == null) {
+            return false;
+        }
+        // An expired field is removed too, but doesn't count as a redemption
+        return stringRedisTemplate.opsForHash().delete(key, jti) > 0
+                && Long.parseLong(expiresAt.toString()) > System.currentTimeMillis();
+    }
+
+    /**
+     * Log a user out everywhere: drops every refresh token of the user in one server-side script
+     *
+     * @return number of refresh tokens removed
+     */
+    public long revokeAllRefreshTokens(String userId) {
+        Long removed = stringRedisTemplate.execute(REVOKE_USER_TOKENS, List.of(refreshTokensKey(userId)),
+                String.valueOf(System.currentTimeMillis()));
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Bulk variant of {@link #revokeAllRefreshTokens(String)}: one EVALSHA per user,
+     * pipelined in batches so thousands of users cost a handful of round trips
+     *
+     * @return number of refresh tokens removed
+     */
+    public long revokeAllRefreshTokens(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        byte[] sha = REVOKE_USER_TOKENS.getSha1().getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.execute((RedisCallback<String>) connection ->
+                connection.scriptingCommands().scriptLoad(REVOKE_USER_TOKENS.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+
+        long removed = 0;
+        List<String> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        for (String userId : userIds) {
+            batch.add(userId);
+            if (batch.size() == BULK_BATCH_SIZE) {
+                removed += revokeBatch(batch, sha);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += revokeBatch(batch, sha);
+        }
+        log.info("Revoked {} refresh tokens for {} users", removed, userIds.size());
+        return removed;
+    }
+
+    private long revokeBatch(List<String> userIds, byte[] sha) {
+        byte[] now = String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String userId : userIds) {
+                byte[] tokensKey = refreshTokensKey(userId).getBytes(StandardCharsets.UTF_8);
+                connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 1, tokensKey, now);
+            }
+            return null;
+        });
+        return results.stream()
+                .filter(Long.class::isInstance)
+                .mapToLong(Long.class::cast)
+                .sum();
+    }
+
+    // ===== Access token revocation =====
+
+    /**
+     * Deny an access token until it expires on its own
+     */
+    public void revokeAccessToken(String jti, Instant expiresAt) {
+        long ttl = expiresAt != null
+                ? Duration.between(Instant.now(), expiresAt).toMillis()
+                : accessTokenExpiration;
+        if (ttl <= 0) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(revokedKey(jti), "1", ttl, TimeUnit.MILLISECONDS);
+        revokedFilter.add(jti);
+        stringRedisTemplate.convertAndSend(revocationChannel(), jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !revokedFilter.mightContain(jti)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(revokedKey(jti)));
+        } catch (DataAccessException ex) {
+            // The filter says this id was probably revoked; refuse it rather than fail open
+            log.warn("Revocation lookup failed for jti {}: {}", jti, ex.getMessage());
+            return true;
+        }
+    }
+
+    private void onRevocation(Message message, byte[] pattern) {
+        revokedFilter.add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private String refreshTokensKey(String userId) {
+        return namespace + ":user:" + userId + ":refresh-tokens";
+    }
+
+    private String revokedKey(String jti) {
+        return namespace + ":revoked:" + jti;
+    }
+
+    private String revocationChannel() {
+        return namespace + ":revocations";
+    }
+}
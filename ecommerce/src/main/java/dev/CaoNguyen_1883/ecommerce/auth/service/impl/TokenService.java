@@ -1,10 +1,36 @@
 package dev.CaoNguyen_1883.ecommerce.auth.service.impl;
 
+import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenService {
 
+    private final RedisTokenService redisTokenService;
+    private final UserRepository userRepository;
+
+    /**
+     * Log out everywhere: every refresh token of the user stops working
+     */
+    public long revokeAllSessions(UUID userId) {
+        return redisTokenService.revokeAllRefreshTokens(userId.toString());
+    }
+
+    /**
+     * Force every holder of a role to sign in again, e.g. after its permissions changed
+     */
+    public long revokeAllSessionsForRole(String roleName) {
+        List<String> userIds = userRepository.findIdsByRoleName(roleName).stream()
+                .map(UUID::toString)
+                .toList();
+        log.info("Revoking sessions of {} users holding {}", userIds.size(), roleName);
+        return redisTokenService.revokeAllRefreshTokens(userIds);
+    }
 }
@@ -0,0 +1,11 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+/**
+ * Cached value plus what probabilistic early refresh needs: how long it took to compute and when it was stored.
+ */
+public record CacheEnvelope(Object value, long computeMillis, long storedAt) {
+
+    static Object unwrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope.value() : stored;
+    }
+}
@@ -0,0 +1,77 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts L1 invalidations over Redis pub/sub and applies the ones coming from other nodes.
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                RedisMessageListenerContainer redisMessageListenerContainer,
+                                ObjectMapper objectMapper,
+                                String channel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        redisMessageListenerContainer.addMessageListener(this::onMessage, new ChannelTopic(channel));
+    }
+
+    void register(TwoTierCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(new Invalidation(nodeId, cacheName, key));
+    }
+
+    void publishClear(String cacheName) {
+        publish(new Invalidation(nodeId, cacheName, null));
+    }
+
+    private void publish(Invalidation invalidation) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(invalidation));
+        } catch (JsonProcessingException | DataAccessException ex) {
+            // Remote L1 copies still expire on their own TTL
+            log.warn("Could not publish cache invalidation for {}: {}", invalidation.cache(), ex.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        try {
+            Invalidation invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+            if (nodeId.equals(invalidation.origin())) {
+                return;
+            }
+            TwoTierCache cache = caches.get(invalidation.cache());
+            if (cache != null) {
+                cache.evictLocal(invalidation.key());
+            }
+        } catch (IOException ex) {
+            log.warn("Ignoring malformed cache invalidation: {}", ex.getMessage());
+        }
+    }
+
+    record Invalidation(String origin, String cache, String key) {
+    }
+}
@@ -0,0 +1,44 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/cachekeys}: most frequently accessed keys per cache.
+ * Counts are approximate and only cover keys still held in the bounded frequency table.
+ */
+@Component
+@Endpoint(id = "cachekeys")
+@RequiredArgsConstructor
+public class CacheKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final CacheMetrics cacheMetrics;
+
+    @ReadOperation
+    public Map<String, List<CacheMetrics.KeyFrequency>> topKeys(@Nullable Integer limit) {
+        Map<String, List<CacheMetrics.KeyFrequency>> result = new LinkedHashMap<>();
+        for (String cacheName : cacheMetrics.cacheNames()) {
+            result.put(cacheName, cacheMetrics.topKeys(cacheName, limitOrDefault(limit)));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public List<CacheMetrics.KeyFrequency> topKeysForCache(@Selector String cache, @Nullable Integer limit) {
+        return cacheMetrics.topKeys(cache, limitOrDefault(limit));
+    }
+
+    private int limitOrDefault(Integer limit) {
+        return limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+    }
+}
@@ -0,0 +1,117 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared infrastructure for stampede protection: short Redis locks that let one node recompute a key
+ * while others wait, and a small bounded pool for asynchronous early refreshes.
+ * After a Redis failure, Redis is treated as down for one lock TTL so callers load locally instead of
+ * each waiting out the command timeout.
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+    private static final RedisScript<Long> RELEASE_LOCK = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String lockPrefix;
+    private final Duration lockTtl;
+    private final double beta;
+    private final ThreadPoolExecutor refreshExecutor;
+    private volatile long redisDownUntil;
+
+    public CacheLoadCoordinator(StringRedisTemplate stringRedisTemplate, String lockPrefix,
+                                Duration lockTtl, double beta, int refreshThreads) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lockPrefix = lockPrefix;
+        this.lockTtl = lockTtl;
+        this.beta = beta;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1_000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    Duration lockTtl() {
+        return lockTtl;
+    }
+
+    /**
+     * XFetch: refresh with a probability that rises as expiry approaches, scaled by how expensive the value is.
+     */
+    boolean shouldRefreshEarly(CacheEnvelope envelope, Duration ttl) {
+        long expiresAt = envelope.storedAt() + ttl.toMillis();
+        double gap = -envelope.computeMillis() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiresAt;
+    }
+
+    /**
+     * @return false when the pool is saturated; early refresh is optional, the entry will simply expire
+     */
+    boolean submitRefresh(Runnable refresh) {
+        try {
+            refreshExecutor.execute(refresh);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisDownUntil;
+    }
+
+    void redisFailed(String operation, DataAccessException ex) {
+        if (redisAvailable()) {
+            log.warn("Redis unavailable during cache {}, loading locally for {}: {}", operation, lockTtl, ex.getMessage());
+        }
+        redisDownUntil = System.currentTimeMillis() + lockTtl.toMillis();
+    }
+
+    /**
+     * @return a token to release the lock with, or null if another node holds it
+     * @throws DataAccessException if Redis is unreachable
+     */
+    String tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockPrefix + key, token, lockTtl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * @throws DataAccessException if Redis is unreachable
+     */
+    boolean isLocked(String key) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockPrefix + key));
+    }
+
+    void unlock(String key, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockPrefix + key), token);
+        } catch (DataAccessException ex) {
+            // The lock expires on its own
+            log.warn("Could not release cache load lock for {}: {}", key, ex.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,149 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer meters for every cache of the two-tier manager, plus an approximate per-cache key frequency
+ * table behind the {@code cachekeys} actuator endpoint.
+ * <p>
+ * Meters: {@code cache.lookups} (result=hit|miss), {@code cache.load.time}, {@code cache.removals},
+ * {@code cache.refresh.failures},
+ * {@code cache.payload.size} and {@code cache.serialization.time} (operation=serialize|deserialize).
+ * L1 tiers are additionally bound with the standard Caffeine binder under {@code tier=local}.
+ */
+public class CacheMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final int trackedKeysPerCache;
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry meterRegistry, int trackedKeysPerCache) {
+        this.meterRegistry = meterRegistry;
+        this.trackedKeysPerCache = trackedKeysPerCache;
+    }
+
+    public Recorder forCache(String cacheName) {
+        return recorders.computeIfAbsent(cacheName, Recorder::new);
+    }
+
+    void bindLocalTier(String cacheName, com.github.benmanes.caffeine.cache.Cache<?, ?> local) {
+        CaffeineCacheMetrics.monitor(meterRegistry, local, cacheName, Tags.of("tier", "local"));
+    }
+
+    public List<String> cacheNames() {
+        return recorders.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * @return the most frequently accessed keys of a cache, most frequent first; empty for unknown caches
+     */
+    public List<KeyFrequency> topKeys(String cacheName, int limit) {
+        Recorder recorder = recorders.get(cacheName);
+        if (recorder == null) {
+            return List.of();
+        }
+        return recorder.keyFrequencies.asMap().entrySet().stream()
+                .map(entry -> new KeyFrequency(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(KeyFrequency::accesses).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public record KeyFrequency(String key, long accesses) {
+    }
+
+    public final class Recorder {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Timer loadTime;
+        private final Counter removals;
+        private final Counter refreshFailures;
+        private final DistributionSummary serializedSize;
+        private final DistributionSummary deserializedSize;
+        private final Timer serializeTime;
+        private final Timer deserializeTime;
+        // Bounded by size; Caffeine's frequency-based admission keeps the hot keys and drops one-off ones
+        private final com.github.benmanes.caffeine.cache.Cache<String, LongAdder> keyFrequencies;
+
+        private Recorder(String cacheName) {
+            Tags tags = Tags.of("cache", cacheName);
+            this.hits = meterRegistry.counter("cache.lookups", tags.and("result", "hit"));
+            this.misses = meterRegistry.counter("cache.lookups", tags.and("result", "miss"));
+            this.loadTime = Timer.builder("cache.load.time")
+                    .description("Time spent computing values on a cache miss")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.removals = meterRegistry.counter("cache.removals", tags);
+            this.refreshFailures = Counter.builder("cache.refresh.failures")
+                    .description("Early refreshes whose loader threw; the current value is served until it expires")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.serializedSize = payloadSize(tags, "serialize");
+            this.deserializedSize = payloadSize(tags, "deserialize");
+            this.serializeTime = serializationTime(tags, "serialize");
+            this.deserializeTime = serializationTime(tags, "deserialize");
+            this.keyFrequencies = Caffeine.newBuilder()
+                    .maximumSize(trackedKeysPerCache)
+                    .build();
+        }
+
+        void hit(Object key) {
+            hits.increment();
+            touch(key);
+        }
+
+        void miss(Object key) {
+            misses.increment();
+            touch(key);
+        }
+
+        void loaded(long nanos) {
+            loadTime.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void removed() {
+            removals.increment();
+        }
+
+        void refreshFailed() {
+            refreshFailures.increment();
+        }
+
+        void serialized(int bytes, long nanos) {
+            serializedSize.record(bytes);
+            serializeTime.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        void deserialized(int bytes, long nanos) {
+            deserializedSize.record(bytes);
+            deserializeTime.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void touch(Object key) {
+            keyFrequencies.get(String.valueOf(key), k -> new LongAdder()).increment();
+        }
+
+        private DistributionSummary payloadSize(Tags tags, String operation) {
+            return DistributionSummary.builder("cache.payload.size")
+                    .baseUnit("bytes")
+                    .tags(tags.and("operation", operation))
+                    .register(meterRegistry);
+        }
+
+        private Timer serializationTime(Tags tags, String operation) {
+            return Timer.builder("cache.serialization.time")
+                    .tags(tags.and("operation", operation))
+                    .register(meterRegistry);
+        }
+    }
+}
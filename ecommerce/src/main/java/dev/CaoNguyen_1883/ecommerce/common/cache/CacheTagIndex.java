@@ -0,0 +1,132 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis-side index from tag to cache entries ({@code ns:tag:{<tag>}} sets of {@code <cache>::<key>}).
+ * Entries are indexed when stored; evicting a tag evicts each listed entry through its cache, which also drops
+ * the L1 copy on every node. Index sets outlive the longest cache TTL; members whose entry already expired
+ * are harmless, evicting them is a no-op.
+ */
+@Slf4j
+public class CacheTagIndex {
+
+    private static final String MEMBER_SEPARATOR = "::";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String prefix;
+    private final Duration indexTtl;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CacheTagIndex(StringRedisTemplate stringRedisTemplate, String prefix, Duration indexTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.prefix = prefix;
+        this.indexTtl = indexTtl;
+    }
+
+    void register(Cache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Index a stored value under its tags; failures only cost precision, never the write itself
+     */
+    void record(String cacheName, Object key, Object value) {
+        Set<String> tags = tagsOf(CacheEnvelope.unwrap(value));
+        if (tags.isEmpty()) {
+            return;
+        }
+        String member = cacheName + MEMBER_SEPARATOR + key;
+        long ttlMillis = indexTtl.toMillis();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (String tag : tags) {
+                    redis.sAdd(tagKey(tag), member);
+                    redis.pExpire(tagKey(tag), ttlMillis);
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not index tags of {}::{}: {}", cacheName, key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Evict every entry carrying any of the tags, in all caches and on all nodes.
+     * Inside a transaction this happens after commit.
+     */
+    public void evictTags(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<String> pending = Set.copyOf(tags);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(pending);
+                }
+            });
+            return;
+        }
+        evictNow(tags);
+    }
+
+    public void evictTag(String tag) {
+        evictTags(List.of(tag));
+    }
+
+    private void evictNow(Collection<String> tags) {
+        for (String tag : tags) {
+            try {
+                Set<String> members = stringRedisTemplate.opsForSet().members(tagKey(tag));
+                if (members == null || members.isEmpty()) {
+                    continue;
+                }
+                for (String member : members) {
+                    int separator = member.indexOf(MEMBER_SEPARATOR);
+                    Cache cache = separator > 0 ? caches.get(member.substring(0, separator)) : null;
+                    if (cache != null) {
+                        cache.evict(member.substring(separator + MEMBER_SEPARATOR.length()));
+                    }
+                }
+                // Only the members handled here; entries indexed meanwhile keep their index
+                stringRedisTemplate.opsForSet().remove(tagKey(tag), members.toArray());
+            } catch (DataAccessException ex) {
+                log.warn("Could not evict cache tag {}: {}", tag, ex.getMessage());
+            }
+        }
+    }
+
+    static Set<String> tagsOf(Object value) {
+        if (value instanceof CacheTagged tagged) {
+            return tagged.cacheTags();
+        }
+        Collection<?> elements = value instanceof Collection<?> collection ? collection
+                : value instanceof Map<?, ?> map ? map.values()
+                : List.of();
+        Set<String> tags = new HashSet<>();
+        for (Object element : elements) {
+            if (element instanceof CacheTagged tagged) {
+                tags.addAll(tagged.cacheTags());
+            }
+        }
+        return tags;
+    }
+
+    private String tagKey(String tag) {
+        return prefix + RedisKeys.hashTag(tag);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import java.util.Set;
+
+/**
+ * Cached values implementing this are indexed under their tags (e.g. {@code product:<id>}, {@code category:<id>}),
+ * so {@link CacheTagIndex#evictTags} can drop every entry holding them, in any cache.
+ * Collections and maps of tagged values are indexed under the union of their elements' tags.
+ */
+public interface CacheTagged {
+
+    Set<String> cacheTags();
+}
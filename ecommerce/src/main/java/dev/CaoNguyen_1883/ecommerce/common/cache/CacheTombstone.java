@@ -0,0 +1,12 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+/**
+ * Cached "not found" result. Stored with a short per-cache TTL and rethrown as a
+ * {@link dev.CaoNguyen_1883.ecommerce.common.exception.ResourceNotFoundException} on a hit.
+ */
+public record CacheTombstone(String message) {
+
+    static boolean isTombstone(Object stored) {
+        return CacheEnvelope.unwrap(stored) instanceof CacheTombstone;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+/**
+ * Preloads one cache at startup, typically by calling the {@code @Cacheable} method that fills it.
+ * Going through the cached method means a warm Redis only copies into the local tier, and a cold one
+ * is loaded from the database.
+ */
+public interface CacheWarmer {
+
+    String cacheName();
+
+    void warm();
+
+    static CacheWarmer of(String cacheName, Runnable warm) {
+        return new CacheWarmer() {
+            @Override
+            public String cacheName() {
+                return cacheName;
+            }
+
+            @Override
+            public void warm() {
+                warm.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the configured {@link CacheWarmer}s in parallel once the application is ready.
+ * Reports OUT_OF_SERVICE until warm-up finishes or times out; it is part of the readiness health group,
+ * so a node only receives traffic with warm caches (or after the timeout, whichever comes first).
+ */
+@Component("cacheWarmup")
+@Slf4j
+public class CacheWarmup implements HealthIndicator {
+
+    private final List<CacheWarmer> warmers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.caches:}")
+    private Set<String> caches;
+
+    @Value("${app.cache.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.cache.warmup.timeout:30s}")
+    private Duration timeout;
+
+    private volatile Health health = Health.outOfService().withDetail("state", "pending").build();
+
+    public CacheWarmup(List<CacheWarmer> warmers, MeterRegistry meterRegistry) {
+        this.warmers = warmers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<CacheWarmer> selected = warmers.stream()
+                .filter(warmer -> caches.isEmpty() || caches.contains(warmer.cacheName()))
+                .toList();
+        if (!enabled || selected.isEmpty()) {
+            health = Health.up().withDetail("state", "skipped").build();
+            return;
+        }
+
+        health = Health.outOfService().withDetail("state", "warming").build();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, selected.size()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+
+        CompletableFuture<?>[] tasks = selected.stream()
+                .map(warmer -> CompletableFuture.runAsync(() -> warm(warmer, failed), executor))
+                .toArray(CompletableFuture[]::new);
+
+        // Completes normally either way, so the health flips to UP even if warm-up overruns
+        CompletableFuture.allOf(tasks)
+                .thenApply(ignored -> false)
+                .completeOnTimeout(true, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((timedOut, ignored) -> {
+                    long elapsed = System.nanoTime() - start;
+                    boolean overran = Boolean.TRUE.equals(timedOut);
+                    Timer.builder("cache.warmup.duration")
+                            .description("Time from application ready until caches were warm")
+                            .tag("outcome", overran ? "timeout" : failed.isEmpty() ? "completed" : "partial")
+                            .register(meterRegistry)
+                            .record(elapsed, TimeUnit.NANOSECONDS);
+                    executor.shutdown();
+
+                    Duration duration = Duration.ofNanos(elapsed);
+                    if (overran) {
+                        log.warn("Cache warm-up timed out after {}, serving traffic with partially warm caches", duration);
+                    } else {
+                        log.info("Warmed {} caches in {} ms", selected.size() - failed.size(), duration.toMillis());
+                    }
+                    health = Health.up()
+                            .withDetail("state", overran ? "timeout" : "done")
+                            .withDetail("durationMs", duration.toMillis())
+                            .withDetail("failed", Set.copyOf(failed))
+                            .build();
+                });
+    }
+
+    private void warm(CacheWarmer warmer, Set<String> failed) {
+        try {
+            warmer.warm();
+        } catch (RuntimeException ex) {
+            failed.add(warmer.cacheName());
+            log.warn("Warm-up of cache {} failed: {}", warmer.cacheName(), ex.getMessage());
+        }
+    }
+}
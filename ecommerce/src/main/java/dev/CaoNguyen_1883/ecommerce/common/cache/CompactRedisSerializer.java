@@ -0,0 +1,141 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary value format for Redis.
+ * <pre>
+ * [0] magic 0xEC   [1] format (1 = Smile)   [2] flags (bit 0 = deflated)   [3..] payload
+ * </pre>
+ * Payloads above the compression threshold are deflated. Anything without the magic byte predates this format
+ * (untyped JSON that never mapped back to the cached type) and is read as a miss, so it gets recomputed.
+ * <p>
+ * Type ids are only honoured for application, {@code java.util} and {@code java.time} classes, so a value planted
+ * in Redis can't make the reader instantiate arbitrary classes.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    public static final byte MAGIC = (byte) 0xEC;
+    public static final byte FORMAT_SMILE = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER_LENGTH = 3;
+
+    static final PolymorphicTypeValidator TYPE_VALIDATOR = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("dev.CaoNguyen_1883.ecommerce.")
+            .allowIfSubType("java.util.")
+            .allowIfSubType("java.time.")
+            .build();
+
+    private final ObjectMapper smileMapper;
+    private final ObjectWriter smileWriter;
+    private final int compressionThreshold;
+
+    public CompactRedisSerializer(int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                // Back-references make repeated property names and @class values nearly free
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.smileMapper = new ObjectMapper(smileFactory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .activateDefaultTyping(TYPE_VALIDATOR, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        // Written as Object so the root carries its type id even when its class is final (records)
+        this.smileWriter = smileMapper.writerFor(Object.class);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] payload = smileWriter.writeValueAsBytes(value);
+            boolean deflate = payload.length > compressionThreshold;
+            if (deflate) {
+                payload = deflate(payload);
+            }
+            byte[] result = new byte[HEADER_LENGTH + payload.length];
+            result[0] = MAGIC;
+            result[1] = FORMAT_SMILE;
+            result[2] = deflate ? FLAG_DEFLATED : 0;
+            System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+            return result;
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write Smile value", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return null;
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_SMILE) {
+            throw new SerializationException("Unsupported cache value format " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        try {
+            byte[] payload = (bytes[2] & FLAG_DEFLATED) != 0
+                    ? inflate(bytes, HEADER_LENGTH)
+                    : java.util.Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            return smileMapper.readValue(payload, Object.class);
+        } catch (IOException | DataFormatException ex) {
+            throw new SerializationException("Could not read Smile value", ex);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated deflate payload");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
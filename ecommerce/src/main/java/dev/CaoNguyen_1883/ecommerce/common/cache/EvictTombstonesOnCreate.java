@@ -0,0 +1,17 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the caches, keyed by entity id, whose negative entries must go when an entity of this type is created.
+ * Takes effect together with {@code @EntityListeners(TombstoneEvictionListener.class)} on the same entity.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EvictTombstonesOnCreate {
+
+    String[] value();
+}
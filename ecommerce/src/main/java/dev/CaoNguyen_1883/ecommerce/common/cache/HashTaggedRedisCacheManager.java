@@ -0,0 +1,43 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * Redis cache manager whose entries are keyed {@code ns:<cache>::{<key>}}.
+ * The hash tag puts entries of different caches for the same key (product detail, stock, ...) in one cluster slot.
+ */
+public class HashTaggedRedisCacheManager extends RedisCacheManager {
+
+    public HashTaggedRedisCacheManager(RedisCacheWriter cacheWriter,
+                                       RedisCacheConfiguration defaultCacheConfiguration,
+                                       Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, @Nullable RedisCacheConfiguration cacheConfiguration) {
+        return new HashTaggedRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration());
+    }
+
+    static class HashTaggedRedisCache extends RedisCache {
+
+        HashTaggedRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration) {
+            super(name, cacheWriter, cacheConfiguration);
+        }
+
+        @Override
+        protected String createCacheKey(Object key) {
+            String convertedKey = RedisKeys.hashTag(convertKey(key));
+            return getCacheConfiguration().usePrefix()
+                    ? getCacheConfiguration().getKeyPrefixFor(getName()) + convertedKey
+                    : convertedKey;
+        }
+    }
+}
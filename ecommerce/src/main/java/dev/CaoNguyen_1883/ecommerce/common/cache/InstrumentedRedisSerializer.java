@@ -0,0 +1,38 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Records payload size and (de)serialization time of one cache's values
+ */
+public class InstrumentedRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final CacheMetrics.Recorder recorder;
+
+    public InstrumentedRedisSerializer(RedisSerializer<Object> delegate, CacheMetrics.Recorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null) {
+            recorder.serialized(bytes.length, System.nanoTime() - start);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        long start = System.nanoTime();
+        Object value = delegate.deserialize(bytes);
+        if (bytes != null) {
+            recorder.deserialized(bytes.length, System.nanoTime() - start);
+        }
+        return value;
+    }
+}
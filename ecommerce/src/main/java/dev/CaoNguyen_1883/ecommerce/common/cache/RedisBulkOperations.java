@@ -0,0 +1,109 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Bulk reads and writes on the non-transactional template.
+ * Commands are sent in pipelined batches over the shared Lettuce connection,
+ * so N keys cost N / batch-size round trips instead of N.
+ * On a cluster, batches are cut per hash slot so every multi-key command (MGET, UNLINK) stays on one node.
+ */
+@Component
+public class RedisBulkOperations {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean cluster;
+
+    public RedisBulkOperations(@Qualifier("cacheRedisTemplate") RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.cluster = redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory factory
+                && factory.isClusterAware();
+    }
+
+    /**
+     * @return values by key; missing keys are absent from the map
+     */
+    public Map<String, Object> multiGet(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (List<String> batch : batches(keys)) {
+            List<Object> values = redisTemplate.opsForValue().multiGet(batch);
+            if (values == null) {
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (values.get(i) != null) {
+                    result.put(batch.get(i), values.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    public void multiSet(Map<String, ?> entries, Duration ttl) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Expiration expiration = Expiration.from(ttl);
+        for (List<String> batch : batches(entries.keySet())) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : batch) {
+                    connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8),
+                            valueSerializer.serialize(entries.get(key)),
+                            expiration, RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * UNLINK in batches; memory is reclaimed by Redis in the background
+     *
+     * @return number of keys removed
+     */
+    public long deleteAll(Collection<String> keys) {
+        long removed = 0;
+        for (List<String> batch : batches(keys)) {
+            Long count = redisTemplate.unlink(batch);
+            removed += count != null ? count : 0;
+        }
+        return removed;
+    }
+
+    private List<List<String>> batches(Collection<String> keys) {
+        if (!cluster) {
+            return chunk(keys);
+        }
+        List<List<String>> batches = new ArrayList<>();
+        RedisKeys.bySlot(keys).values().forEach(slotKeys -> batches.addAll(chunk(slotKeys)));
+        return batches;
+    }
+
+    private static List<List<String>> chunk(Collection<String> keys) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>(Math.min(keys.size(), BATCH_SIZE));
+        for (String key : keys) {
+            current.add(key);
+            if (current.size() == BATCH_SIZE) {
+                batches.add(current);
+                current = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
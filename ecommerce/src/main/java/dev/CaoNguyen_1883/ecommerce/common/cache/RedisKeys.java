@@ -0,0 +1,72 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Key layout helpers for Redis Cluster.
+ * <p>
+ * Keys that are used together carry the same hash tag (the part in braces), so they map to one slot and
+ * multi-key commands, pipelines and Lua scripts stay valid on a cluster:
+ * <ul>
+ *   <li>{@code ns:{user:<id>}:tokens} and {@code ns:{user:<id>}:refresh:<jti>}</li>
+ *   <li>{@code ns:<cache>::{<key>}}, so e.g. a product's detail and stock entries share a slot</li>
+ * </ul>
+ */
+public final class RedisKeys {
+
+    private RedisKeys() {
+    }
+
+    public static String hashTag(String value) {
+        return "{" + value + "}";
+    }
+
+    public static int slot(String key) {
+        return ClusterSlotHashUtil.calculateSlot(key);
+    }
+
+    /**
+     * Groups keys by hash slot, preserving order within each slot
+     */
+    public static Map<Integer, List<String>> bySlot(Collection<String> keys) {
+        Map<Integer, List<String>> slots = new LinkedHashMap<>();
+        for (String key : keys) {
+            slots.computeIfAbsent(slot(key), s -> new ArrayList<>()).add(key);
+        }
+        return slots;
+    }
+
+    /**
+     * SCAN for a pattern. On a cluster the scan runs node by node over the masters, since a single
+     * cursor can't span nodes.
+     */
+    public static void scan(RedisConnection connection, String pattern, int count, Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        if (connection instanceof RedisClusterConnection cluster) {
+            for (RedisClusterNode node : cluster.clusterGetNodes()) {
+                if (node.isMaster()) {
+                    drain(cluster.scan(node, options), consumer);
+                }
+            }
+        } else {
+            drain(connection.keyCommands().scan(options), consumer);
+        }
+    }
+
+    private static void drain(Cursor<byte[]> cursor, Consumer<String> consumer) {
+        try (cursor) {
+            while (cursor.hasNext()) {
+                consumer.accept(new String(cursor.next(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import dev.CaoNguyen_1883.ecommerce.common.datasource.ReplicaRoutingDataSource;
+import dev.CaoNguyen_1883.ecommerce.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Stampede protection for {@code @Cacheable(sync = true)} loads.
+ * <ul>
+ *   <li>concurrent misses for one key on this node share a single load</li>
+ *   <li>across nodes, one node recomputes under a short Redis lock while others wait for the lock to be released,
+ *       then read its result</li>
+ *   <li>hot entries are recomputed asynchronously shortly before expiry (XFetch), so callers never block on it;
+ *       a refresh only runs under the lock and is never joined by a miss</li>
+ *   <li>when Redis is unreachable, only the L1 tier of a {@link TwoTierCache} is read and filled; misses load
+ *       locally, without locking or polling</li>
+ * </ul>
+ * Loads read from the primary database, so a fill right after an eviction can't cache a lagging replica's data.
+ * Values are stored wrapped in a {@link CacheEnvelope}; reads unwrap transparently.
+ * With negative caching enabled, a load that throws {@link ResourceNotFoundException} leaves a
+ * {@link CacheTombstone} behind, and hits on it rethrow instead of calling the loader again.
+ * Stored values that carry {@link CacheTagged} tags are indexed in the {@link CacheTagIndex}.
+ */
+@Slf4j
+public class StampedeProtectedCache implements Cache {
+
+    private static final long POLL_INTERVAL_MILLIS = 25;
+
+    private final Cache delegate;
+    private final Duration ttl;
+    private final CacheLoadCoordinator coordinator;
+    private final CacheMetrics.Recorder metrics;
+    private final boolean negativeCaching;
+    private final CacheTagIndex tagIndex;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public StampedeProtectedCache(Cache delegate, Duration ttl, CacheLoadCoordinator coordinator,
+                                  CacheMetrics.Recorder metrics, boolean negativeCaching, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.coordinator = coordinator;
+        this.metrics = metrics;
+        this.negativeCaching = negativeCaching;
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper == null) {
+            metrics.miss(key);
+            return null;
+        }
+        metrics.hit(key);
+        return new SimpleValueWrapper(present(wrapper.get()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper != null) {
+            metrics.hit(key);
+            Object stored = wrapper.get();
+            if (stored instanceof CacheEnvelope envelope && !CacheTombstone.isTombstone(envelope)
+                    && coordinator.shouldRefreshEarly(envelope, ttl)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) present(stored);
+        }
+        metrics.miss(key);
+        return (T) loadOnce(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, new CacheEnvelope(value, 0, System.currentTimeMillis()));
+        tagIndex.record(getName(), key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, new CacheEnvelope(value, 0, System.currentTimeMillis()));
+        if (existing == null) {
+            tagIndex.record(getName(), key, value);
+            return null;
+        }
+        return new SimpleValueWrapper(CacheEnvelope.unwrap(existing.get()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        metrics.removed();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean removed = delegate.evictIfPresent(key);
+        if (removed) {
+            metrics.removed();
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        metrics.removed();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean removed = delegate.invalidate();
+        metrics.removed();
+        return removed;
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        if (inFlight.containsKey(key) || !refreshing.add(key)) {
+            return;
+        }
+        boolean submitted = coordinator.submitRefresh(() -> {
+            try {
+                refresh(key, valueLoader);
+            } catch (RuntimeException ex) {
+                // The current value stays in place until it expires. The loader runs without the caller's
+                // security context or transaction, which is what a failure here most likely points at.
+                metrics.refreshFailed();
+                log.warn("Early refresh of {}::{} failed, serving the current value until it expires",
+                        getName(), key, ex);
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+        if (!submitted) {
+            refreshing.remove(key);
+        }
+    }
+
+    // Best effort: skipped when another node holds the lock or Redis is down, the current value is still served
+    private void refresh(Object key, Callable<?> valueLoader) {
+        if (!coordinator.redisAvailable()) {
+            return;
+        }
+        String lockKey = lockKey(key);
+        String token;
+        try {
+            token = coordinator.tryLock(lockKey);
+        } catch (DataAccessException ex) {
+            coordinator.redisFailed("refresh", ex);
+            return;
+        }
+        if (token == null) {
+            return;
+        }
+        try {
+            compute(key, valueLoader);
+        } finally {
+            coordinator.unlock(lockKey, token);
+        }
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(key, valueLoader, existing);
+        }
+        try {
+            Object value = loadAcrossNodes(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object loadAcrossNodes(Object key, Callable<?> valueLoader) {
+        if (!coordinator.redisAvailable()) {
+            return compute(key, valueLoader);
+        }
+        String lockKey = lockKey(key);
+        String token;
+        try {
+            token = coordinator.tryLock(lockKey);
+        } catch (DataAccessException ex) {
+            coordinator.redisFailed("lock", ex);
+            return compute(key, valueLoader);
+        }
+        if (token == null) {
+            Object loaded = waitForOtherNode(key, lockKey);
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        try {
+            return compute(key, valueLoader);
+        } finally {
+            if (token != null) {
+                coordinator.unlock(lockKey, token);
+            }
+        }
+    }
+
+    // The lock lives on the master; the entry itself may be read from a replica, so it's only read once released
+    private Object waitForOtherNode(Object key, String lockKey) {
+        long deadline = System.currentTimeMillis() + coordinator.lockTtl().toMillis();
+        while (System.currentTimeMillis() < deadline && coordinator.redisAvailable()) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            boolean locked;
+            try {
+                locked = coordinator.isLocked(lockKey);
+            } catch (DataAccessException ex) {
+                coordinator.redisFailed("lock", ex);
+                return null;
+            }
+            if (!locked) {
+                // A replica that hasn't caught up reads as a miss and the caller computes the value itself
+                ValueWrapper wrapper = remoteGet(key);
+                return wrapper != null ? present(wrapper.get()) : null;
+            }
+        }
+        return null;
+    }
+
+    private Object compute(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = ReplicaRoutingDataSource.readFromPrimary(valueLoader);
+        } catch (Exception ex) {
+            ResourceNotFoundException notFound = negativeCaching ? findNotFound(ex) : null;
+            if (notFound != null) {
+                remotePut(key, new CacheEnvelope(new CacheTombstone(notFound.getMessage()), 0,
+                        System.currentTimeMillis()));
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.loaded(elapsed);
+        if (value != null) {
+            long computeMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (remotePut(key, new CacheEnvelope(value, computeMillis, System.currentTimeMillis()))) {
+                tagIndex.record(getName(), key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the stored entry, or null on a miss; only the L1 tier is consulted while Redis is unreachable
+     */
+    private ValueWrapper remoteGet(Object key) {
+        if (!coordinator.redisAvailable()) {
+            return localGet(key);
+        }
+        try {
+            return delegate.get(key);
+        } catch (DataAccessException ex) {
+            coordinator.redisFailed("read", ex);
+            return localGet(key);
+        }
+    }
+
+    /**
+     * @return false if the entry only went to the L1 tier (or nowhere) because Redis is unreachable
+     */
+    private boolean remotePut(Object key, CacheEnvelope envelope) {
+        if (!coordinator.redisAvailable()) {
+            localPut(key, envelope);
+            return false;
+        }
+        try {
+            delegate.put(key, envelope);
+            return true;
+        } catch (DataAccessException ex) {
+            coordinator.redisFailed("write", ex);
+            localPut(key, envelope);
+            return false;
+        }
+    }
+
+    private ValueWrapper localGet(Object key) {
+        return delegate instanceof TwoTierCache tiered ? tiered.getLocal(key) : null;
+    }
+
+    private void localPut(Object key, CacheEnvelope envelope) {
+        if (delegate instanceof TwoTierCache tiered) {
+            tiered.putLocal(key, envelope);
+        }
+    }
+
+    private String lockKey(Object key) {
+        return getName() + "::" + key;
+    }
+
+    private static Object present(Object stored) {
+        Object value = CacheEnvelope.unwrap(stored);
+        if (value instanceof CacheTombstone tombstone) {
+            throw new ResourceNotFoundException(tombstone.message());
+        }
+        return value;
+    }
+
+    private static ResourceNotFoundException findNotFound(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResourceNotFoundException notFound) {
+                return notFound;
+            }
+        }
+        return null;
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * L1 expiry: regular entries live for the tier's TTL, tombstones only for the cache's negative TTL
+ */
+class TombstoneAwareExpiry implements Expiry<Object, Object> {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    TombstoneAwareExpiry(Duration ttl, Duration negativeTtl) {
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = Math.min(negativeTtl.toNanos(), ttlNanos);
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return CacheTombstone.isTombstone(value) ? negativeTtlNanos : ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
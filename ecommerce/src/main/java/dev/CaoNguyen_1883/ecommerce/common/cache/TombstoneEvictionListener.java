@@ -0,0 +1,45 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the id's entry from the caches named by {@link EvictTombstonesOnCreate} when an entity is inserted.
+ * Registered per entity, next to the annotation, so entities without negative caching don't carry it.
+ * The cache manager is transaction-aware, so the eviction itself happens after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class TombstoneEvictionListener {
+
+    private static final ClassValue<String[]> CACHE_NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            EvictTombstonesOnCreate annotation = type.getAnnotation(EvictTombstonesOnCreate.class);
+            return annotation != null ? annotation.value() : new String[0];
+        }
+    };
+
+    // Resolved lazily: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    @PostPersist
+    public void afterCreate(BaseEntity entity) {
+        String[] cacheNames = CACHE_NAMES.get(entity.getClass());
+        CacheManager manager = cacheNames.length > 0 ? cacheManager.getIfAvailable() : null;
+        if (manager == null) {
+            return;
+        }
+        for (String cacheName : cacheNames) {
+            Cache cache = manager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(entity.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Wraps the Redis cache managers: caches with a {@link LocalCacheSpec} get a Caffeine L1 tier in front of a cache
+ * from {@code tieredRemoteCacheManager}, which must read from the master (an L1 filled from a lagging replica stays
+ * stale for its whole TTL); all others are plain Redis caches from {@code remoteCacheManager}.
+ * Every cache is then guarded by a {@link StampedeProtectedCache}.
+ */
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheManager tieredRemoteCacheManager;
+    private final Map<String, LocalCacheSpec> localCacheSpecs;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final Function<String, Duration> ttlResolver;
+    private final CacheMetrics cacheMetrics;
+    private final Map<String, Duration> negativeTtls;
+    private final CacheTagIndex tagIndex;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               CacheManager tieredRemoteCacheManager,
+                               Map<String, LocalCacheSpec> localCacheSpecs,
+                               CacheInvalidationBus invalidationBus,
+                               CacheLoadCoordinator loadCoordinator,
+                               Function<String, Duration> ttlResolver,
+                               CacheMetrics cacheMetrics,
+                               Map<String, Duration> negativeTtls,
+                               CacheTagIndex tagIndex) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.tieredRemoteCacheManager = tieredRemoteCacheManager;
+        this.localCacheSpecs = Map.copyOf(localCacheSpecs);
+        this.invalidationBus = invalidationBus;
+        this.loadCoordinator = loadCoordinator;
+        this.ttlResolver = ttlResolver;
+        this.cacheMetrics = cacheMetrics;
+        this.negativeTtls = Map.copyOf(negativeTtls);
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+                .map(this::decorate)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return decorate(name);
+    }
+
+    private Cache decorate(String name) {
+        Cache cache = tiered(name);
+        if (cache == null) {
+            return null;
+        }
+        StampedeProtectedCache protectedCache = new StampedeProtectedCache(cache, ttlResolver.apply(name),
+                loadCoordinator, cacheMetrics.forCache(name), negativeTtls.containsKey(name), tagIndex);
+        tagIndex.register(protectedCache);
+        return protectedCache;
+    }
+
+    private Cache tiered(String name) {
+        LocalCacheSpec spec = localCacheSpecs.get(name);
+        if (spec == null) {
+            return remoteCacheManager.getCache(name);
+        }
+        Cache remote = tieredRemoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .recordStats();
+        Duration negativeTtl = negativeTtls.get(name);
+        if (negativeTtl != null) {
+            builder.expireAfter(new TombstoneAwareExpiry(spec.ttl(), negativeTtl));
+        } else {
+            builder.expireAfterWrite(spec.ttl());
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = builder.build();
+        cacheMetrics.bindLocalTier(name, local);
+        TwoTierCache cache = new TwoTierCache(name, local, remote, invalidationBus);
+        invalidationBus.register(cache);
+        return cache;
+    }
+
+    /**
+     * Size and TTL bound of a cache's L1 tier; the TTL should stay below the Redis TTL
+     */
+    public record LocalCacheSpec(long maximumSize, Duration ttl) {
+    }
+}
@@ -0,0 +1,53 @@
+package dev.CaoNguyen_1883.ecommerce.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a write recently, so their reads can skip replicas that may not have it yet.
+ * Per node: pair with session affinity, or keep the window above the replica lag you tolerate.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, int maxUsers) {
+        this(window, maxUsers, Ticker.systemTicker());
+    }
+
+    ReadYourWritesTracker(Duration window, int maxUsers, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    public void recordWrite(String principal) {
+        if (principal != null) {
+            recentWriters.put(principal, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently(String principal) {
+        return principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    /**
+     * @return the authenticated user's name, or {@code null} for anonymous and system work
+     */
+    public static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
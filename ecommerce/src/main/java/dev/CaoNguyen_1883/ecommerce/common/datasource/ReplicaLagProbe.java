@@ -0,0 +1,36 @@
+package dev.CaoNguyen_1883.ecommerce.common.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Measures how far a replica is behind its source.
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * @return the replication lag, or {@code null} when the server isn't replicating (treated as unhealthy)
+     */
+    Duration lag(Connection connection) throws SQLException;
+
+    /**
+     * MySQL 8.0.22+: {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS}. Whole seconds only,
+     * and NULL while the SQL thread is stopped.
+     */
+    static ReplicaLagProbe mysql() {
+        return connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long seconds = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? null : Duration.ofSeconds(seconds);
+            }
+        };
+    }
+}
@@ -0,0 +1,226 @@
+package dev.CaoNguyen_1883.ecommerce.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for readOnly transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction's
+ * read-only flag is only set after the transaction manager asks for a connection, the proxy defers that to the first
+ * statement. Reads fall back to the primary when no replica is healthy and within {@code maxLag}, when the chosen
+ * replica refuses a connection, when the current user committed a write within the read-your-writes window, or
+ * inside {@link #readFromPrimary}. Note that a read-write transaction joined from inside a readOnly one keeps the replica connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    public record ReplicaStatus(boolean healthy, Duration lag, String error, Instant checkedAt) {
+    }
+
+    private static final String WRITE_TRACKED_KEY = ReplicaRoutingDataSource.class.getName() + ".writeTracked";
+    private static final ThreadLocal<Boolean> PRIMARY_HINT = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final ReplicaLagProbe lagProbe;
+    private final Duration maxLag;
+    private final ReadYourWritesTracker readYourWrites;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ReplicaStatus> status = new ConcurrentHashMap<>();
+    private volatile List<String> healthy = List.of();
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaLagProbe lagProbe,
+                                    Duration maxLag, ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagProbe = lagProbe;
+        this.maxLag = maxLag;
+        this.readYourWrites = readYourWrites;
+        this.meterRegistry = meterRegistry;
+        // Unknown until the first check: reads stay on the primary
+        this.replicas.keySet().forEach(name -> status.put(name, new ReplicaStatus(false, null, "not checked yet", null)));
+    }
+
+    /**
+     * Starts periodic health and lag checks; the first one runs immediately.
+     */
+    public void start(Duration interval) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        List<String> up = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            ReplicaStatus result = check(replica);
+            ReplicaStatus previous = status.put(name, result);
+            if (previous != null && previous.healthy() != result.healthy()) {
+                log.warn("Replica {} is now {} (lag {}, {})", name, result.healthy() ? "in rotation" : "out of rotation",
+                        result.lag(), result.error());
+            }
+            if (result.healthy()) {
+                up.add(name);
+            }
+        });
+        healthy = List.copyOf(up);
+    }
+
+    private ReplicaStatus check(DataSource replica) {
+        Instant now = Instant.now();
+        try (Connection connection = replica.getConnection()) {
+            Duration lag = lagProbe.lag(connection);
+            if (lag == null) {
+                return new ReplicaStatus(false, null, "not replicating", now);
+            }
+            boolean withinLag = lag.compareTo(maxLag) <= 0;
+            return new ReplicaStatus(withinLag, lag, withinLag ? null : "lagging", now);
+        } catch (SQLException | RuntimeException ex) {
+            return new ReplicaStatus(false, null, ex.getMessage(), now);
+        }
+    }
+
+    public Map<String, ReplicaStatus> replicaStatus() {
+        return Map.copyOf(status);
+    }
+
+    /**
+     * Runs {@code action} with its reads on the primary, for loads whose result outlives the transaction
+     * (cache fills): a lagging replica would put data back that an eviction has just invalidated.
+     * Applies to connections first used inside {@code action}.
+     */
+    public static <T> T readFromPrimary(Callable<T> action) throws Exception {
+        if (PRIMARY_HINT.get() != null) {
+            return action.call();
+        }
+        PRIMARY_HINT.set(Boolean.TRUE);
+        try {
+            return action.call();
+        } finally {
+            PRIMARY_HINT.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(replica).getConnection();
+        } catch (SQLException ex) {
+            // Taken out of rotation until the next check says otherwise
+            status.put(replica, new ReplicaStatus(false, null, ex.getMessage(), Instant.now()));
+            healthy = healthy.stream().filter(name -> !name.equals(replica)).toList();
+            count(Target.PRIMARY, "replica-failed");
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Explicit credentials only make sense for one target; replicas use the ones configured per replica
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * @return the replica to read from, or {@code null} for the primary
+     */
+    private String route() {
+        String principal = ReadYourWritesTracker.currentPrincipal();
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            trackWrite(principal);
+            count(Target.PRIMARY, "not-read-only");
+            return null;
+        }
+        if (PRIMARY_HINT.get() != null) {
+            count(Target.PRIMARY, "primary-hint");
+            return null;
+        }
+        if (readYourWrites.wroteRecently(principal)) {
+            count(Target.PRIMARY, "read-your-writes");
+            return null;
+        }
+        List<String> candidates = healthy;
+        if (candidates.isEmpty()) {
+            count(Target.PRIMARY, "no-healthy-replica");
+            return null;
+        }
+        count(Target.REPLICA, "read-only");
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Starts the window when the transaction commits, not when it began
+    private void trackWrite(String principal) {
+        if (principal == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED_KEY, principal);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED_KEY);
+                if (status == STATUS_COMMITTED) {
+                    readYourWrites.recordWrite(principal);
+                }
+            }
+        });
+    }
+
+    private void count(Target target, String reason) {
+        Counter.builder("db.routing")
+                .description("Connections handed out, by target and routing reason")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (DataSource target : replicas.values()) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
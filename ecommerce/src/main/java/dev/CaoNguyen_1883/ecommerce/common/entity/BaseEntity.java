@@ -3,7 +3,9 @@ package dev.CaoNguyen_1883.ecommerce.common.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,8 +21,12 @@ import java.util.UUID;
 @NoArgsConstructor
 public abstract class BaseEntity {
 
+    // Time-ordered, stored as raw 16 bytes in big-endian order so the clustered index stays append-only.
+    // SqlTypes.UUID (not BINARY) so join-table columns derived from it are BINARY(16) as well
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(columnDefinition = "BINARY(16)", updatable = false, nullable = false)
     private UUID id;
 
     @CreationTimestamp
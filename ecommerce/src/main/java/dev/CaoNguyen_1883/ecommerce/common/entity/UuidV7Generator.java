@@ -0,0 +1,47 @@
+package dev.CaoNguyen_1883.ecommerce.common.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 UUIDv7: 48-bit Unix milliseconds, then a 12-bit sequence, then 62 random bits.
+ * Ids from one JVM are strictly increasing (the sequence counts within a millisecond and borrows the next
+ * one on overflow), so inserts append to the right edge of the InnoDB clustered index instead of splitting
+ * random pages.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (unix millis << 12) | sequence
+    private static final AtomicLong STATE = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long state = STATE.updateAndGet(previous -> now > previous
+                // New millisecond: start the sequence low and random, leaving headroom to count up
+                ? now | (RANDOM.nextInt(1 << 10))
+                : previous + 1);
+
+        long mostSigBits = ((state >>> 12) << 16) | 0x7000L | (state & 0xFFFL);
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
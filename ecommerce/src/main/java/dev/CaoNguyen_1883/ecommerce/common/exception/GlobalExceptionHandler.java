@@ -4,6 +4,7 @@ import dev.CaoNguyen_1883.ecommerce.common.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -286,6 +287,25 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handle ServiceUnavailableException (503)
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceUnavailable(
+            ServiceUnavailableException ex,
+            HttpServletRequest request) {
+
+        log.warn("Service unavailable: {} at {}", ex.getMessage(), request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(
+                        ex.getMessage(),
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        request.getRequestURI()
+                ));
+    }
+
     /**
      * Handle all other exceptions (500)
      */
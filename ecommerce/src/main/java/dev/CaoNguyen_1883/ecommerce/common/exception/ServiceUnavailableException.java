@@ -0,0 +1,10 @@
+package dev.CaoNguyen_1883.ecommerce.common.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,56 @@
+package dev.CaoNguyen_1883.ecommerce.common.pagination;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seek position in a {@code (createdAt, id)} ordered listing, plus which way to read from it.
+ * Clients only ever see the encoded token; it is opaque, not signed - a forged cursor can only
+ * seek somewhere else in a listing the caller may already read.
+ */
+public record Cursor(LocalDateTime createdAt, UUID id, Direction direction) {
+
+    public enum Direction { NEXT, PREVIOUS }
+
+    private static final char SEPARATOR = '|';
+
+    public static Cursor next(BaseEntity last) {
+        return new Cursor(last.getCreatedAt(), last.getId(), Direction.NEXT);
+    }
+
+    public static Cursor previous(BaseEntity first) {
+        return new Cursor(first.getCreatedAt(), first.getId(), Direction.PREVIOUS);
+    }
+
+    public String encode() {
+        String raw = direction.name().charAt(0) + String.valueOf(SEPARATOR) + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return the decoded cursor, or {@code null} for a blank token (first page) */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            Direction direction = switch (parts[0]) {
+                case "N" -> Direction.NEXT;
+                case "P" -> Direction.PREVIOUS;
+                default -> throw new IllegalArgumentException("Unknown direction " + parts[0]);
+            };
+            return new Cursor(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]), direction);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+}
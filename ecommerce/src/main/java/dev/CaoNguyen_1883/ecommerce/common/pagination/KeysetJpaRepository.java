@@ -0,0 +1,124 @@
+package dev.CaoNguyen_1883.ecommerce.common.pagination;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.common.response.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.criteria.*;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository base class (see {@code JpaConfig}) providing {@link KeysetRepository#findPage}.
+ * Repositories that don't extend {@link KeysetRepository} behave exactly like {@link SimpleJpaRepository}.
+ */
+public class KeysetJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private static final String TABLE_ROWS_SQL = """
+            SELECT TABLE_ROWS FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table
+            """;
+
+    private final Class<T> domainClass;
+    private final EntityManager entityManager;
+    private final boolean mysql;
+
+    public KeysetJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.domainClass = entityInformation.getJavaType();
+        this.entityManager = entityManager;
+        this.mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    public CursorPage<T> findPage(@Nullable Specification<T> spec, @Nullable String cursor, int size, boolean approximateCount) {
+        Cursor position = Cursor.decode(cursor);
+        int limit = Math.clamp(size, 1, KeysetRepository.MAX_PAGE_SIZE);
+        boolean backward = position != null && position.direction() == Cursor.Direction.PREVIOUS;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<UUID> id = root.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (spec != null) {
+            Predicate filter = spec.toPredicate(root, query, cb);
+            if (filter != null) {
+                where.add(filter);
+            }
+        }
+        if (position != null) {
+            where.add(seek(cb, createdAt, id, position, backward));
+        }
+        query.select(root).where(where.toArray(Predicate[]::new));
+        // Reading backwards walks the same index the other way and flips the rows afterwards
+        query.orderBy(backward
+                ? List.of(cb.asc(createdAt), cb.asc(id))
+                : List.of(cb.desc(createdAt), cb.desc(id)));
+
+        // One extra row tells us whether there is anything beyond this page, without a COUNT
+        List<T> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean more = rows.size() > limit;
+        List<T> items = new ArrayList<>(more ? rows.subList(0, limit) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+
+        boolean hasNext = backward ? position != null : more;
+        boolean hasPrevious = backward ? more : position != null;
+        BaseEntity first = items.isEmpty() ? null : (BaseEntity) items.getFirst();
+        BaseEntity last = items.isEmpty() ? null : (BaseEntity) items.getLast();
+
+        return CursorPage.<T>builder()
+                .items(items)
+                .size(limit)
+                .hasNext(hasNext && last != null)
+                .hasPrevious(hasPrevious && first != null)
+                .nextCursor(hasNext && last != null ? Cursor.next(last).encode() : null)
+                .prevCursor(hasPrevious && first != null ? Cursor.previous(first).encode() : null)
+                .approximateCount(approximateCount && spec == null ? estimateRows() : null)
+                .build();
+    }
+
+    // (createdAt, id) < (c, i) for newest-first, > when reading backwards. The leading bound on
+    // createdAt alone keeps MySQL on a single range scan of the (created_at, id) index.
+    private static Predicate seek(CriteriaBuilder cb, Path<LocalDateTime> createdAt, Path<UUID> id,
+                                  Cursor position, boolean backward) {
+        if (backward) {
+            return cb.and(
+                    cb.greaterThanOrEqualTo(createdAt, position.createdAt()),
+                    cb.or(cb.greaterThan(createdAt, position.createdAt()),
+                            cb.greaterThan(id, position.id())));
+        }
+        return cb.and(
+                cb.lessThanOrEqualTo(createdAt, position.createdAt()),
+                cb.or(cb.lessThan(createdAt, position.createdAt()),
+                        cb.lessThan(id, position.id())));
+    }
+
+    // InnoDB's statistics estimate: free to read, but can be off by tens of percent and is refreshed
+    // lazily (information_schema_stats_expiry). Good enough for "about 120k permissions".
+    private Long estimateRows() {
+        Table table = domainClass.getAnnotation(Table.class);
+        if (!mysql || table == null || table.name().isEmpty()) {
+            return null;
+        }
+        List<?> result = entityManager.createNativeQuery(TABLE_ROWS_SQL)
+                .setParameter("table", table.name())
+                .getResultList();
+        Object rows = result.isEmpty() ? null : result.getFirst();
+        return rows instanceof Number n ? n.longValue() : null;
+    }
+}
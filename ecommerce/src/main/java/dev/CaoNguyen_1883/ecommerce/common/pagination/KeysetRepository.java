@@ -0,0 +1,33 @@
+package dev.CaoNguyen_1883.ecommerce.common.pagination;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.common.response.CursorPage;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Seek-based listing for {@link BaseEntity} repositories, newest first on {@code (createdAt, id)}.
+ * Every page is a single index range scan of {@code size + 1} rows, so page 500 costs the same as
+ * page 1; entities need a {@code (created_at, id)} index. Implemented by {@link KeysetJpaRepository}.
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T extends BaseEntity> extends JpaRepository<T, UUID>, JpaSpecificationExecutor<T> {
+
+    int MAX_PAGE_SIZE = 100;
+
+    /**
+     * @param cursor           token from a previous page, {@code null} for the first page
+     * @param size             page size, clamped to {@code 1..MAX_PAGE_SIZE}
+     * @param approximateCount also report the table-size estimate (unfiltered listings only)
+     */
+    CursorPage<T> findPage(@Nullable Specification<T> spec, @Nullable String cursor, int size, boolean approximateCount);
+
+    default CursorPage<T> findPage(@Nullable String cursor, int size) {
+        return findPage(null, cursor, size, false);
+    }
+}
@@ -0,0 +1,44 @@
+package dev.CaoNguyen_1883.ecommerce.common.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset listing. Pass {@code nextCursor} / {@code prevCursor} back as the
+ * {@code cursor} parameter to move; there is no page number and no exact total.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+
+    private String nextCursor;
+    private String prevCursor;
+    private boolean hasNext;
+    private boolean hasPrevious;
+
+    // Storage-engine estimate of the table size, only filled in when requested
+    private Long approximateCount;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return CursorPage.<R>builder()
+                .items(items.stream().<R>map(mapper).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .hasNext(hasNext)
+                .hasPrevious(hasPrevious)
+                .approximateCount(approximateCount)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package dev.CaoNguyen_1883.ecommerce.config;
+
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheWarmer;
+import dev.CaoNguyen_1883.ecommerce.seed.RBACDataInitializer;
+import dev.CaoNguyen_1883.ecommerce.user.service.RoleService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches preloaded after startup; see {@code app.cache.warmup}
+ */
+@Configuration
+public class CacheWarmupConfig {
+
+    @Bean
+    public CacheWarmer rolesCacheWarmer(RoleService roleService, RBACDataInitializer rbacSeed) {
+        return CacheWarmer.of("roles", afterSeed(rbacSeed, roleService::getAllRoles));
+    }
+
+    @Bean
+    public CacheWarmer permissionsCacheWarmer(RoleService roleService, RBACDataInitializer rbacSeed) {
+        return CacheWarmer.of("permissions", afterSeed(rbacSeed, roleService::getAllPermissions));
+    }
+
+    // The seed runs in the background alongside warm-up; on a fresh database a warmer that got there first would
+    // cache the empty catalog, and if its put landed after the seed cleared the caches it would stay for the TTL
+    private static Runnable afterSeed(RBACDataInitializer rbacSeed, Runnable warm) {
+        return () -> {
+            rbacSeed.seeded().join();
+            warm.run();
+        };
+    }
+}
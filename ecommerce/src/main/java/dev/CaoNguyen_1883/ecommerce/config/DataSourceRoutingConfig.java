@@ -0,0 +1,105 @@
+package dev.CaoNguyen_1883.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dev.CaoNguyen_1883.ecommerce.common.datasource.ReadYourWritesTracker;
+import dev.CaoNguyen_1883.ecommerce.common.datasource.ReplicaLagProbe;
+import dev.CaoNguyen_1883.ecommerce.common.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary/replica DataSource routing, enabled with app.datasource.routing.enabled.
+ * Without it the auto-configured single DataSource is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private final Environment environment;
+
+    public DataSourceRoutingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Owns the primary and replica pools; not injected directly, JPA gets the lazy proxy below
+     */
+    @Bean(autowireCandidate = false, destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             DataSourceRoutingProperties routing,
+                                                             MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Same pool and driver settings as the auto-configured DataSource, e.g. data-source-properties
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> configured = routing.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword())
+                    .build();
+            String name = "replica-" + i;
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(routing.getReplicaPoolSize());
+            pool.setReadOnly(true);
+            // Don't block startup on a replica that is down; the health check keeps it out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(poolMetrics);
+            replicas.put(name, pool);
+        }
+
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, ReplicaLagProbe.mysql(),
+                routing.getMaxLag(),
+                new ReadYourWritesTracker(routing.getStickyWindow(), routing.getStickyMaxUsers()),
+                meterRegistry);
+        dataSource.start(routing.getHealthCheckInterval());
+        return dataSource;
+    }
+
+    /**
+     * Defers fetching the physical connection to the first statement, by which point the
+     * transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceRoutingProperties routing, DataSourceProperties dataSourceProperties,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource(dataSourceProperties, routing, meterRegistry));
+    }
+
+    /**
+     * Replica rotation for the health endpoint. Always UP: reads fall back to the primary
+     */
+    @Bean
+    public HealthIndicator dbReplicasHealthIndicator(DataSourceRoutingProperties routing,
+                                                     DataSourceProperties dataSourceProperties,
+                                                     MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource dataSource = replicaRoutingDataSource(dataSourceProperties, routing, meterRegistry);
+        return () -> Health.up().withDetails(dataSource.replicaStatus()).build();
+    }
+}
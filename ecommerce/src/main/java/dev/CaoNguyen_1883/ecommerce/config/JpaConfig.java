@@ -1,12 +1,16 @@
 package dev.CaoNguyen_1883.ecommerce.config;
 
+import dev.CaoNguyen_1883.ecommerce.EcommerceApplication;
+import dev.CaoNguyen_1883.ecommerce.common.pagination.KeysetJpaRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @Configuration
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
+@EnableJpaRepositories(basePackageClasses = EcommerceApplication.class, repositoryBaseClass = KeysetJpaRepository.class)
 public class JpaConfig {
     @Bean
     public AuditorAware<String> auditorAware() {
@@ -0,0 +1,41 @@
+package dev.CaoNguyen_1883.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token bucket limits per route group (app.rate-limit.groups.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        // Ant-style path patterns, e.g. /auth/**
+        private List<String> patterns = new ArrayList<>();
+
+        // Paths under the patterns that this group doesn't limit, e.g. public key discovery
+        private List<String> excludePatterns = new ArrayList<>();
+
+        // Burst size of the bucket
+        private int capacity = 20;
+
+        // Sustained rate
+        private double refillPerSecond = 1.0;
+
+        // Requests per second per key rejected locally, before any Redis round trip
+        private int localLimitPerSecond = 50;
+    }
+}
@@ -6,8 +6,25 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheEnvelope;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheInvalidationBus;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheLoadCoordinator;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheMetrics;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheTagIndex;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheTombstone;
+import dev.CaoNguyen_1883.ecommerce.common.cache.InstrumentedRedisSerializer;
+import dev.CaoNguyen_1883.ecommerce.common.cache.CompactRedisSerializer;
+import dev.CaoNguyen_1883.ecommerce.common.cache.HashTaggedRedisCacheManager;
+import dev.CaoNguyen_1883.ecommerce.common.cache.TwoTierCacheManager;
+import dev.CaoNguyen_1883.ecommerce.common.cache.TwoTierCacheManager.LocalCacheSpec;
 import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
 import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -16,20 +33,25 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.*;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Configuration
 @EnableCaching
@@ -53,34 +75,166 @@ public class RedisConfig {
     @Value("${app.redis.namespace:ecommerce}")
     private String namespace;
 
+
+    @Value("${app.redis.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${app.cache.stampede.lock-ttl:5s}")
+    private Duration loadLockTtl;
+
+    @Value("${app.cache.stampede.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${app.cache.stampede.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${app.cache.metrics.tracked-keys:1000}")
+    private int trackedKeysPerCache;
+
+    @Value("${app.cache.tags.index-ttl:2h}")
+    private Duration tagIndexTtl;
+
     /**
-     * Redis connection factory with connection pooling and timeouts
+     * Redis connection factory for the configured topology (standalone, static master/replica, Sentinel or Cluster).
+     * Reads and writes both go to the master: token denylist, rate limits, locks and tag indexes must not
+     * see a lagging replica. Only reads of caches without an L1 tier follow the ReadFrom policy,
+     * see {@link #cacheConnectionFactory}.
      */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
-        redisStandaloneConfiguration.setHostName(redisHost);
-        redisStandaloneConfiguration.setPort(redisPort);
+    @Primary
+    public RedisConnectionFactory redisConnectionFactory(RedisTopologyProperties topology) {
+        return connectionFactory(topology, ReadFrom.UPSTREAM);
+    }
+
+    /**
+     * Connection for cache entries without an L1 tier, whose reads may go to replicas per app.redis.topology.read-from
+     */
+    @Bean(autowireCandidate = false)
+    public RedisConnectionFactory cacheConnectionFactory(RedisTopologyProperties topology) {
+        if (topology.getMode() == RedisTopologyProperties.Mode.STANDALONE) {
+            return redisConnectionFactory(topology);
+        }
+        return connectionFactory(topology, ReadFrom.valueOf(topology.getReadFrom()));
+    }
 
-        if(redisPassword != null && !redisPassword.trim().isEmpty()) {
-            redisStandaloneConfiguration.setPassword(redisPassword);
+    private LettuceConnectionFactory connectionFactory(RedisTopologyProperties topology, ReadFrom readFrom) {
+        LettuceConnectionFactory lettuceConnectionFactory = new LettuceConnectionFactory(
+                redisConfiguration(topology, redisHost, redisPort, redisPassword),
+                clientConfiguration(topology, Duration.ofMillis(timeout), readFrom));
+        // Pipelines flush in chunks instead of once per command
+        lettuceConnectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(256));
+        return lettuceConnectionFactory;
+    }
+
+    /**
+     * Connection for pub/sub subscriptions. Lettuce can't subscribe through a static master/replica
+     * connection, so that mode subscribes on the master directly; other modes reuse the main factory.
+     */
+    @Bean(autowireCandidate = false)
+    public RedisConnectionFactory redisSubscriptionConnectionFactory(RedisTopologyProperties topology) {
+        if (topology.getMode() != RedisTopologyProperties.Mode.MASTER_REPLICA) {
+            return redisConnectionFactory(topology);
         }
+        RedisTopologyProperties standalone = new RedisTopologyProperties();
+        return new LettuceConnectionFactory(
+                redisConfiguration(standalone, redisHost, redisPort, redisPassword),
+                clientConfiguration(standalone, Duration.ofMillis(timeout)));
+    }
+
+    static RedisConfiguration redisConfiguration(RedisTopologyProperties topology,
+                                                 String host, int port, String password) {
+        boolean hasPassword = password != null && !password.trim().isEmpty();
+        switch (topology.getMode()) {
+            case MASTER_REPLICA -> {
+                RedisStaticMasterReplicaConfiguration configuration = new RedisStaticMasterReplicaConfiguration(host, port);
+                topology.getReplicas().forEach(node -> {
+                    RedisNode replica = RedisNode.fromString(node);
+                    configuration.addNode(replica.getHost(), replica.getPort());
+                });
+                if (hasPassword) {
+                    configuration.setPassword(password);
+                }
+                return configuration;
+            }
+            case SENTINEL -> {
+                RedisTopologyProperties.Sentinel sentinel = topology.getSentinel();
+                RedisSentinelConfiguration configuration = new RedisSentinelConfiguration();
+                configuration.master(sentinel.getMaster());
+                sentinel.getNodes().forEach(node -> configuration.sentinel(RedisNode.fromString(node)));
+                if (hasPassword) {
+                    configuration.setPassword(password);
+                }
+                if (sentinel.getPassword() != null && !sentinel.getPassword().isBlank()) {
+                    configuration.setSentinelPassword(sentinel.getPassword());
+                }
+                return configuration;
+            }
+            case CLUSTER -> {
+                RedisTopologyProperties.Cluster cluster = topology.getCluster();
+                RedisClusterConfiguration configuration = new RedisClusterConfiguration(cluster.getNodes());
+                configuration.setMaxRedirects(cluster.getMaxRedirects());
+                if (hasPassword) {
+                    configuration.setPassword(password);
+                }
+                return configuration;
+            }
+            default -> {
+                RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
+                redisStandaloneConfiguration.setHostName(host);
+                redisStandaloneConfiguration.setPort(port);
+
+                if (hasPassword) {
+                    redisStandaloneConfiguration.setPassword(password);
+                }
+                return redisStandaloneConfiguration;
+            }
+        }
+    }
 
+    static LettuceClientConfiguration clientConfiguration(RedisTopologyProperties topology, Duration timeout) {
+        return clientConfiguration(topology, timeout, ReadFrom.valueOf(topology.getReadFrom()));
+    }
+
+    static LettuceClientConfiguration clientConfiguration(RedisTopologyProperties topology, Duration timeout,
+                                                          ReadFrom readFrom) {
         SocketOptions socketOptions = SocketOptions.builder()
-                .connectTimeout(Duration.ofMillis(timeout))
+                .connectTimeout(timeout)
                 .keepAlive(true)
                 .build();
 
-        ClientOptions clientOptions = ClientOptions.builder()
-                .socketOptions(socketOptions)
-                .autoReconnect(true)
-                .build();
+        ClientOptions clientOptions = topology.getMode() == RedisTopologyProperties.Mode.CLUSTER
+                ? ClusterClientOptions.builder()
+                        .socketOptions(socketOptions)
+                        .autoReconnect(true)
+                        .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                                .enableAllAdaptiveRefreshTriggers()
+                                .enablePeriodicRefresh(topology.getCluster().getTopologyRefreshPeriod())
+                                .build())
+                        .build()
+                : ClientOptions.builder()
+                        .socketOptions(socketOptions)
+                        .autoReconnect(true)
+                        .build();
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+        RedisTopologyProperties.Pool pool = topology.getPool();
+        if (pool.isEnabled()) {
+            GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(pool.getMaxActive());
+            poolConfig.setMaxIdle(pool.getMaxIdle());
+            poolConfig.setMinIdle(pool.getMinIdle());
+            poolConfig.setMaxWait(pool.getMaxWait());
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        } else {
+            builder = LettuceClientConfiguration.builder();
+        }
 
-        LettuceClientConfiguration lettuceClientConfiguration = LettuceClientConfiguration.builder()
-                .commandTimeout(Duration.ofMillis(timeout))
-                .clientOptions(clientOptions)
-                .build();
-        return new LettuceConnectionFactory(redisStandaloneConfiguration, lettuceClientConfiguration);
+        builder.commandTimeout(timeout)
+                .clientOptions(clientOptions);
+        if (topology.getMode() != RedisTopologyProperties.Mode.STANDALONE) {
+            builder.readFrom(readFrom);
+        }
+        return builder.build();
     }
 
     /**
@@ -94,6 +248,14 @@ public class RedisConfig {
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
+    /**
+     * Value serializer shared by the cache and the template (compact, typed Smile)
+     */
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer() {
+        return new CompactRedisSerializer(compressionThreshold);
+    }
+
     /**
      * Redis template for manual Redis operations
      * Use this for custom cache logic, rate limiting, sessions, etc.
@@ -102,19 +264,18 @@ public class RedisConfig {
     @Primary
     public RedisTemplate<String, Object> redisTemplate(
             RedisConnectionFactory redisConnectionFactory,
-            ObjectMapper objectMapper) {
+            RedisSerializer<Object> redisValueSerializer) {
 
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(redisConnectionFactory);
 
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
-        GenericJackson2JsonRedisSerializer genericJackson2JsonRedisSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
 
         redisTemplate.setKeySerializer(stringRedisSerializer);
         redisTemplate.setHashKeySerializer(stringRedisSerializer);
 
-        redisTemplate.setValueSerializer(genericJackson2JsonRedisSerializer);
-        redisTemplate.setHashValueSerializer(genericJackson2JsonRedisSerializer);
+        redisTemplate.setValueSerializer(redisValueSerializer);
+        redisTemplate.setHashValueSerializer(redisValueSerializer);
 
         redisTemplate.setEnableTransactionSupport(true);
         redisTemplate.afterPropertiesSet();
@@ -123,20 +284,84 @@ public class RedisConfig {
     }
 
     /**
-     * Cache manager with different TTL strategies for different cache types
+     * Non-transactional template for bulk cache workloads; reads may be served by replicas.
+     * Never binds a dedicated connection inside @Transactional, so commands share Lettuce's multiplexed connection.
      */
     @Bean
-    public CacheManager cacheManager(
-            RedisConnectionFactory connectionFactory,
-            ObjectMapper redisObjectMapper) {
+    public RedisTemplate<String, Object> cacheRedisTemplate(
+            RedisTopologyProperties topology,
+            RedisSerializer<Object> redisValueSerializer) {
+
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(cacheConnectionFactory(topology));
+
+        StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
-        GenericJackson2JsonRedisSerializer jsonSerializer =
-                new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        redisTemplate.setKeySerializer(stringRedisSerializer);
+        redisTemplate.setHashKeySerializer(stringRedisSerializer);
+
+        redisTemplate.setValueSerializer(redisValueSerializer);
+        redisTemplate.setHashValueSerializer(redisValueSerializer);
+
+        redisTemplate.afterPropertiesSet();
+
+        return redisTemplate;
+    }
+
+    /**
+     * Pub/sub listener container shared by components that sync local state across nodes
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisTopologyProperties topology) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisSubscriptionConnectionFactory(topology));
+        return container;
+    }
+
+    /**
+     * Single-flight loading and early refresh for {@code @Cacheable(sync = true)} methods
+     */
+    @Bean(destroyMethod = "shutdown")
+    public CacheLoadCoordinator cacheLoadCoordinator(StringRedisTemplate stringRedisTemplate) {
+        return new CacheLoadCoordinator(stringRedisTemplate, namespace + ":cache-lock:",
+                loadLockTtl, earlyRefreshBeta, refreshThreads);
+    }
+
+    /**
+     * Per-cache hit/miss, load, removal and payload meters; also backs the cachekeys actuator endpoint
+     */
+    @Bean
+    public CacheMetrics cacheMetrics(MeterRegistry meterRegistry) {
+        return new CacheMetrics(meterRegistry, trackedKeysPerCache);
+    }
+
+    /**
+     * Tag to cache-entry index for evicting related entries across caches
+     */
+    @Bean
+    public CacheTagIndex cacheTagIndex(StringRedisTemplate stringRedisTemplate) {
+        return new CacheTagIndex(stringRedisTemplate, namespace + ":tag:", tagIndexTtl);
+    }
+
+    /**
+     * Cache manager with different TTL strategies for different cache types.
+     * Read-mostly caches also get a Caffeine L1 tier in front of Redis, kept coherent across nodes via pub/sub.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            RedisTopologyProperties topology,
+            ObjectMapper redisObjectMapper,
+            RedisSerializer<Object> redisValueSerializer,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            CacheLoadCoordinator cacheLoadCoordinator,
+            CacheMetrics cacheMetrics,
+            CacheTagIndex cacheTagIndex) {
 
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer))
                 .prefixCacheNameWith(namespace + ":")
                 .disableCachingNullValues();
 
@@ -178,12 +403,77 @@ public class RedisConfig {
         cacheConfigurations.put("searchResults",
                 defaultCacheConfig.entryTtl(Duration.ofMinutes(15)));
 
+        // Roles & permissions - default TTL, listed so they get their own serializer metrics
+        cacheConfigurations.put("roles", defaultCacheConfig);
+        cacheConfigurations.put("permissions", defaultCacheConfig);
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultCacheConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
-                .build();
+        // Single role by id - default TTL
+        cacheConfigurations.put("roleDetails", defaultCacheConfig);
+
+        // Negative caching: "not found" tombstones per cache, with their own short TTL
+        Map<String, Duration> negativeTtls = new HashMap<>();
+
+        negativeTtls.put("roleDetails", Duration.ofSeconds(30));
+
+        negativeTtls.forEach((name, negativeTtl) -> cacheConfigurations.computeIfPresent(name, (n, config) ->
+                config.entryTtl(tombstoneAwareTtl(config.getTtlFunction().getTimeToLive(null, null), negativeTtl))));
+
+        // Each named cache gets its own instrumented serializer, so payload size and time are tagged per cache
+        cacheConfigurations.replaceAll((name, config) -> config.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                        new InstrumentedRedisSerializer(redisValueSerializer, cacheMetrics.forCache(name)))));
+
+        // Local (L1) tier: only read-mostly caches, TTL well below the Redis TTL
+        Map<String, LocalCacheSpec> localCacheSpecs = new HashMap<>();
+
+        localCacheSpecs.put("roles", new LocalCacheSpec(100, Duration.ofMinutes(10)));
+        localCacheSpecs.put("permissions", new LocalCacheSpec(100, Duration.ofMinutes(10)));
+        localCacheSpecs.put("roleDetails", new LocalCacheSpec(1_000, Duration.ofMinutes(10)));
+        localCacheSpecs.put("categories", new LocalCacheSpec(1_000, Duration.ofMinutes(10)));
+        localCacheSpecs.put("productDetails", new LocalCacheSpec(10_000, Duration.ofMinutes(5)));
+        localCacheSpecs.put("products", new LocalCacheSpec(5_000, Duration.ofMinutes(2)));
+
+        HashTaggedRedisCacheManager redisCacheManager = redisCacheManager(
+                cacheConnectionFactory(topology), defaultCacheConfig, cacheConfigurations);
+        // L1-tiered caches read their L2 from the master: every Redis hit is copied into L1, and a lagging replica
+        // read right after a pub/sub invalidation would put the old value back for the whole L1 TTL
+        HashTaggedRedisCacheManager tieredRedisCacheManager = redisCacheManager(
+                redisConnectionFactory(topology), defaultCacheConfig, cacheConfigurations);
+
+        CacheInvalidationBus invalidationBus = new CacheInvalidationBus(stringRedisTemplate,
+                redisMessageListenerContainer, redisObjectMapper, namespace + ":cache-invalidation");
+
+        // Early refresh needs each cache's Redis TTL to know how close an entry is to expiry
+        Function<String, Duration> ttlResolver = name -> cacheConfigurations.getOrDefault(name, defaultCacheConfig)
+                .getTtlFunction().getTimeToLive(null, null);
+
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(redisCacheManager, tieredRedisCacheManager,
+                localCacheSpecs, invalidationBus, cacheLoadCoordinator, ttlResolver, cacheMetrics, negativeTtls,
+                cacheTagIndex);
+        // Transaction awareness moved up here so L1 and L2 are both written after commit
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    private static HashTaggedRedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                                                 RedisCacheConfiguration defaultCacheConfig,
+                                                                 Map<String, RedisCacheConfiguration> cacheConfigurations) {
+        // Entries are keyed ns:cache::{key}. clear() uses SCAN; a cluster can't run one cursor across nodes,
+        // so there KEYS is fanned out to each master by the cluster connection instead
+        boolean cluster = connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.isClusterAware();
+        HashTaggedRedisCacheManager redisCacheManager = new HashTaggedRedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                        cluster ? BatchStrategies.keys() : BatchStrategies.scan(1000)),
+                defaultCacheConfig,
+                cacheConfigurations);
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
+    }
+
+    private static RedisCacheWriter.TtlFunction tombstoneAwareTtl(Duration ttl, Duration negativeTtl) {
+        return (key, value) -> value instanceof CacheEnvelope envelope && envelope.value() instanceof CacheTombstone
+                ? negativeTtl
+                : ttl;
     }
 
     /**
@@ -0,0 +1,77 @@
+package dev.CaoNguyen_1883.ecommerce.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis deployment shape (app.redis.topology.*). Host, port and password still come from spring.data.redis.*;
+ * in master-replica mode they address the master.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.redis.topology")
+public class RedisTopologyProperties {
+
+    private Mode mode = Mode.STANDALONE;
+
+    // host:port of each replica, for master-replica mode
+    private List<String> replicas = new ArrayList<>();
+
+    // Lettuce ReadFrom name, e.g. replicaPreferred, upstream, lowestLatency; ignored in standalone mode.
+    // Applies to caches without an L1 tier only, everything else reads from the master
+    private String readFrom = "replicaPreferred";
+
+    private Sentinel sentinel = new Sentinel();
+
+    private Cluster cluster = new Cluster();
+
+    private Pool pool = new Pool();
+
+    public enum Mode {
+        STANDALONE,
+        MASTER_REPLICA,
+        SENTINEL,
+        CLUSTER
+    }
+
+    @Data
+    public static class Sentinel {
+        private String master = "mymaster";
+
+        // host:port of each sentinel
+        private List<String> nodes = new ArrayList<>();
+
+        private String password;
+    }
+
+    @Data
+    public static class Cluster {
+        // host:port of the seed nodes; the rest of the topology is discovered
+        private List<String> nodes = new ArrayList<>();
+
+        private int maxRedirects = 3;
+
+        // Periodic topology refresh, on top of the adaptive refresh on MOVED/ASK and reconnects
+        private Duration topologyRefreshPeriod = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Pool {
+        // Pooled connections are only used for dedicated work (transactions, blocking commands);
+        // regular commands keep sharing one multiplexed connection
+        private boolean enabled = false;
+
+        private int maxActive = 16;
+
+        private int maxIdle = 8;
+
+        private int minIdle = 0;
+
+        private Duration maxWait = Duration.ofSeconds(2);
+    }
+}
@@ -1,39 +1,89 @@
 package dev.CaoNguyen_1883.ecommerce.config;
 
-import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import dev.CaoNguyen_1883.ecommerce.auth.component.BoundedPasswordEncoder;
+import dev.CaoNguyen_1883.ecommerce.auth.component.CachingJwtDecoder;
+import dev.CaoNguyen_1883.ecommerce.auth.component.InternedAuthoritiesConverter;
+import dev.CaoNguyen_1883.ecommerce.auth.component.ConditionalOnJwtSigning;
+import dev.CaoNguyen_1883.ecommerce.auth.component.JwtKeyStore;
+import dev.CaoNguyen_1883.ecommerce.auth.component.JwtRevocationValidator;
+import dev.CaoNguyen_1883.ecommerce.auth.component.KidCachingKeySelector;
+import dev.CaoNguyen_1883.ecommerce.auth.component.RateLimitFilter;
+import dev.CaoNguyen_1883.ecommerce.auth.component.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 @Profile({"test", "prod"})
 public class SecurityConfig {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+    // Absent on verify-only replicas
+    private final ObjectProvider<JwtKeyStore> jwtKeyStore;
+
+    // Set on verify-only replicas to read keys from the signing service instead of the local key store
+    @Value("${jwt.jwks-uri:}")
+    private String jwksUri;
+
+    @Value("${jwt.jwks-min-refresh-interval:30s}")
+    private Duration jwksMinRefreshInterval;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int passwordPoolSize;
+
+    @Value("${app.security.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    @Value("${app.security.password.wait-timeout:5s}")
+    private Duration passwordWaitTimeout;
+
+    @Value("${jwt.decoder-cache.max-size:50000}")
+    private long jwtCacheMaxSize;
+
+    @Value("${jwt.decoder-cache.max-ttl:15m}")
+    private Duration jwtCacheMaxTtl;
 
 //    private final OAuth2SuccessHandler oAuth2SuccessHandler;
 
@@ -42,7 +92,13 @@ public class SecurityConfig {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // Not a bean, so it is not registered a second time as a plain servlet filter
+            .addFilterBefore(new RateLimitFilter(rateLimiter, rateLimitProperties, objectMapper),
+                    BearerTokenAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
+                        // Probes and build info stay open; metrics and cache keys expose internals
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, InfoEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                         .requestMatchers("/auth/**", "/oauth2/**", "/login/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -58,24 +114,50 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * ES256 verification with public keys parsed once per kid.
+     * Verified tokens are cached until their exp; revocation is still checked on every request.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        SecretKey secretKey = new SecretKeySpec(jwtSecret.getBytes(), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry, JwtRevocationValidator jwtRevocationValidator) {
+        // An unknown kid on a signing node is usually a key another node just rotated in: re-read the shared file
+        Supplier<JWKSet> keySource = jwksUri.isBlank() ? jwtKeyStore.getObject()::reloadPublicKeys : this::fetchRemoteKeys;
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KidCachingKeySelector(keySource, jwksMinRefreshInterval));
+        // Claims are validated by NimbusJwtDecoder's own validators
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        return new CachingJwtDecoder(nimbusJwtDecoder, jwtRevocationValidator, jwtCacheMaxSize, jwtCacheMaxTtl)
+                .bindTo(meterRegistry);
     }
 
+    /**
+     * Signs with the key store's active key; its kid is written into the JWS header
+     */
     @Bean
+    @ConditionalOnJwtSigning
     public JwtEncoder jwtEncoder() {
-        SecretKey secretKey = new SecretKeySpec(jwtSecret.getBytes(), "HmacSHA256");
-        return new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
+        JwtKeyStore keyStore = jwtKeyStore.getObject();
+        JWKSource<SecurityContext> jwkSource = (selector, context) -> selector.select(new JWKSet(keyStore.activeKey()));
+        return new NimbusJwtEncoder(jwkSource);
+    }
+
+    private JWKSet fetchRemoteKeys() {
+        try {
+            return JWKSet.load(URI.create(jwksUri).toURL(), 2000, 2000, 512 * 1024);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("Could not fetch JWK set from " + jwksUri, ex);
+        }
     }
 
+    /**
+     * Roles claim mapped to shared, pre-built authority sets
+     */
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new InternedAuthoritiesConverter());
         return jwtAuthenticationConverter;
     }
 
@@ -97,9 +179,13 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * BCrypt on a bounded pool; rejects with 503 when the queue is full
+     */
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry){
+        return new BoundedPasswordEncoder(bcryptStrength, passwordPoolSize, passwordQueueCapacity,
+                passwordWaitTimeout, meterRegistry);
     }
 }
 
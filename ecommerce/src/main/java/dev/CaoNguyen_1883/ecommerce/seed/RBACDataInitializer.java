@@ -1,150 +1,160 @@
 package dev.CaoNguyen_1883.ecommerce.seed;
 
-import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
-import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
-import dev.CaoNguyen_1883.ecommerce.user.repository.PermissionRepository;
-import dev.CaoNguyen_1883.ecommerce.user.repository.RoleRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-@Component
+import static dev.CaoNguyen_1883.ecommerce.seed.RbacCatalog.*;
+
+/**
+ * Declares the RBAC catalog and seeds it in the background once the application is ready.
+ * Reports OUT_OF_SERVICE until the catalog is in place; it is part of the readiness health group,
+ * so a node never serves requests against missing roles, while startup itself doesn't wait on the database.
+ * Anything that caches RBAC data at startup waits for {@link #seeded()}, or it could cache the pre-seed state.
+ */
+@Component("rbacSeed")
 @RequiredArgsConstructor
 @Slf4j
-public class RBACDataInitializer {
-    
-    private final RoleRepository roleRepository;
-    private final PermissionRepository permissionRepository;
-    
-    @PostConstruct
-    public void init() {
-        initRoles();
-        initPermissions();
-        assignPermissionsToRoles();
+public class RBACDataInitializer implements HealthIndicator {
+
+    static final RbacCatalog CATALOG = new RbacCatalog(
+            List.of(
+                    // User
+                    permission("user:view", "View users"),
+                    permission("user:create", "Create new users"),
+                    permission("user:update", "Update user information"),
+                    permission("user:delete", "Delete users"),
+
+                    // Product
+                    permission("product:view", "View products"),
+                    permission("product:create", "Create new products"),
+                    permission("product:update", "Update products"),
+                    permission("product:delete", "Delete products"),
+
+                    // Order
+                    permission("order:view", "View orders"),
+                    permission("order:update", "Update order status"),
+                    permission("order:approve", "Approve customer orders"),
+                    permission("order:cancel", "Cancel orders"),
+
+                    // Category / Brand
+                    permission("category:view", "View product categories"),
+                    permission("category:create", "Create categories"),
+                    permission("category:update", "Update categories"),
+                    permission("category:delete", "Delete categories"),
+                    permission("brand:view", "View brands"),
+                    permission("brand:create", "Create new brands"),
+                    permission("brand:update", "Update brands"),
+                    permission("brand:delete", "Delete brands"),
+
+                    // Review / Feedback
+                    permission("review:view", "View product reviews"),
+                    permission("review:create", "Add product reviews"),
+                    permission("review:delete", "Delete product reviews"),
+
+                    // Payment
+                    permission("payment:view", "View payment info"),
+                    permission("payment:update", "Update payment info"),
+
+                    // Recommendation / Analytics
+                    permission("recommendation:view", "View recommendation data"),
+                    permission("analytics:view", "View analytics and reports")
+            ),
+            List.of(
+                    role("ROLE_ADMIN", "ADMIN", ALL),
+                    role("ROLE_STAFF", "STAFF",
+                            "order:view", "order:update", "order:approve", "order:cancel",
+                            "user:view", "analytics:view"),
+                    role("ROLE_SELLER", "SELLER",
+                            "product:view", "product:create", "product:update", "product:delete",
+                            "order:view", "review:view", "recommendation:view"),
+                    role("ROLE_CUSTOMER", "USER",
+                            "product:view", "order:view", "review:create", "review:view", "recommendation:view")
+            )
+    );
+
+    private final RbacSeeder seeder;
+
+    @Value("${app.seed.rbac.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.seed.rbac.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.seed.rbac.retry-backoff:2s}")
+    private Duration retryBackoff;
+
+    private volatile Health health = Health.outOfService().withDetail("state", "pending").build();
+    private final CompletableFuture<Void> seeded = new CompletableFuture<>();
+
+    @Override
+    public Health health() {
+        return health;
     }
-    
-    public void initRoles(){
-        List<Role> roles = new ArrayList<>();
-        roles.add(Role.builder().name("ROLE_ADMIN").description("ADMIN").build());
-        roles.add(Role.builder().name("ROLE_CUSTOMER").description("USER").build());
-        roles.add(Role.builder().name("ROLE_SELLER").description("SELLER").build());
-        roles.add(Role.builder().name("ROLE_STAFF").description("STAFF").build());
-        roles.forEach(role -> roleRepository.findByName(role.getName())
-                .orElseGet(() -> {
-                    roleRepository.save(role);
-                    log.info("Created new role: {}", role.getName());
-                    return role;
-                }));
+
+    /**
+     * Completes once the catalog is in place and the RBAC caches it touched are cleared, or right away when seeding
+     * is disabled; completes exceptionally when seeding gives up
+     */
+    public CompletableFuture<Void> seeded() {
+        return seeded.copy();
     }
 
-    public void initPermissions() {
-        List<Permission> permissions = new ArrayList<>();
-        permissions.addAll(List.of(
-                // User
-                Permission.builder().name("user:view").description("View users").build(),
-                Permission.builder().name("user:create").description("Create new users").build(),
-                Permission.builder().name("user:update").description("Update user information").build(),
-                Permission.builder().name("user:delete").description("Delete users").build(),
-
-                // Product
-                Permission.builder().name("product:view").description("View products").build(),
-                Permission.builder().name("product:create").description("Create new products").build(),
-                Permission.builder().name("product:update").description("Update products").build(),
-                Permission.builder().name("product:delete").description("Delete products").build(),
-
-                // Order
-                Permission.builder().name("order:view").description("View orders").build(),
-                Permission.builder().name("order:update").description("Update order status").build(),
-                Permission.builder().name("order:approve").description("Approve customer orders").build(),
-                Permission.builder().name("order:cancel").description("Cancel orders").build(),
-
-                // Category / Brand
-                Permission.builder().name("category:view").description("View product categories").build(),
-                Permission.builder().name("category:create").description("Create categories").build(),
-                Permission.builder().name("category:update").description("Update categories").build(),
-                Permission.builder().name("category:delete").description("Delete categories").build(),
-                Permission.builder().name("brand:view").description("View brands").build(),
-                Permission.builder().name("brand:create").description("Create new brands").build(),
-                Permission.builder().name("brand:update").description("Update brands").build(),
-                Permission.builder().name("brand:delete").description("Delete brands").build(),
-
-                // Review / Feedback
-                Permission.builder().name("review:view").description("View product reviews").build(),
-                Permission.builder().name("review:create").description("Add product reviews").build(),
-                Permission.builder().name("review:delete").description("Delete product reviews").build(),
-
-                // Payment
-                Permission.builder().name("payment:view").description("View payment info").build(),
-                Permission.builder().name("payment:update").description("Update payment info").build(),
-
-                // Recommendation / Analytics
-                Permission.builder().name("recommendation:view").description("View recommendation data").build(),
-                Permission.builder().name("analytics:view").description("View analytics and reports").build()
-        ));
-
-        permissions.forEach(permission -> permissionRepository.findByName(permission.getName())
-                .orElseGet(() -> {
-                    permissionRepository.save(permission);
-                    log.info("Created new permission: {}", permission.getName());
-                    return permission;
-                }));
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            health = Health.up().withDetail("state", "skipped").build();
+            seeded.complete(null);
+            return;
+        }
+        health = Health.outOfService().withDetail("state", "seeding").build();
+        Thread.ofPlatform().name("rbac-seed").daemon().start(this::seedWithRetry);
     }
 
-    @Transactional
-    public void assignPermissionsToRoles() {
-        // Lấy tất cả permission đã seed
-        List<Permission> allPermissions = permissionRepository.findAll();
-
-        // Lấy từng nhóm permission theo module
-        Map<String, Permission> map = allPermissions.stream()
-                .collect(Collectors.toMap(Permission::getName, p -> p));
-
-        // ===== ROLE_ADMIN =====
-        Role admin = roleRepository.findByName("ROLE_ADMIN")
-                .orElseThrow(() -> new RuntimeException("ROLE_ADMIN not found"));
-        admin.setPermissions(new HashSet<>(allPermissions));
-
-        // ===== ROLE_STAFF =====
-        Role staff = roleRepository.findByName("ROLE_STAFF")
-                .orElseThrow(() -> new RuntimeException("ROLE_STAFF not found"));
-        staff.setPermissions(Set.of(
-                map.get("order:view"),
-                map.get("order:update"),
-                map.get("order:approve"),
-                map.get("order:cancel"),
-                map.get("user:view"),
-                map.get("analytics:view")
-        ));
-
-        // ===== ROLE_SELLER =====
-        Role seller = roleRepository.findByName("ROLE_SELLER")
-                .orElseThrow(() -> new RuntimeException("ROLE_SELLER not found"));
-        seller.setPermissions(Set.of(
-                map.get("product:view"),
-                map.get("product:create"),
-                map.get("product:update"),
-                map.get("product:delete"),
-                map.get("order:view"),
-                map.get("review:view"),
-                map.get("recommendation:view")
-        ));
-
-        // ===== ROLE_CUSTOMER =====
-        Role customer = roleRepository.findByName("ROLE_CUSTOMER")
-                .orElseThrow(() -> new RuntimeException("ROLE_CUSTOMER not found"));
-        customer.setPermissions(Set.of(
-                map.get("product:view"),
-                map.get("order:view"),
-                map.get("review:create"),
-                map.get("review:view"),
-                map.get("recommendation:view")
-        ));
-
-        roleRepository.saveAll(List.of(admin, staff, seller, customer));
+    private void seedWithRetry() {
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                RbacSeeder.Result result = seeder.seed(CATALOG);
+                long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                if (result.skipped()) {
+                    log.info("RBAC catalog unchanged, seeding skipped ({} ms)", elapsedMs);
+                } else {
+                    log.info("Seeded RBAC catalog in {} ms: {}", elapsedMs, result);
+                }
+                health = Health.up()
+                        .withDetail("state", result.skipped() ? "unchanged" : "applied")
+                        .withDetail("durationMs", elapsedMs)
+                        .build();
+                seeded.complete(null);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts) {
+                    // Stays out of readiness: serving without roles would reject every login
+                    log.error("RBAC seeding failed after {} attempts", attempt, ex);
+                    health = Health.down(ex).withDetail("state", "failed").build();
+                    seeded.completeExceptionally(ex);
+                    return;
+                }
+                log.warn("RBAC seeding attempt {} failed, retrying in {}: {}", attempt, retryBackoff, ex.getMessage());
+                try {
+                    Thread.sleep(retryBackoff.multipliedBy(attempt));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    health = Health.down().withDetail("state", "interrupted").build();
+                    seeded.completeExceptionally(ie);
+                    return;
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package dev.CaoNguyen_1883.ecommerce.seed;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Declared roles and permissions. Roles listing {@link #ALL} get every permission in the database at seeding time,
+ * including ones created at runtime.
+ */
+public record RbacCatalog(List<PermissionSpec> permissions, List<RoleSpec> roles) {
+
+    public static final String ALL = "*";
+
+    public record PermissionSpec(String name, String description) {
+    }
+
+    public record RoleSpec(String name, String description, Set<String> permissions) {
+        public boolean grantsAll() {
+            return permissions.contains(ALL);
+        }
+    }
+
+    public RbacCatalog {
+        permissions = List.copyOf(permissions);
+        roles = List.copyOf(roles);
+        Set<String> declared = new HashSet<>();
+        permissions.forEach(permission -> declared.add(permission.name()));
+        for (RoleSpec role : roles) {
+            for (String permission : role.permissions()) {
+                if (!ALL.equals(permission) && !declared.contains(permission)) {
+                    throw new IllegalArgumentException("Role " + role.name() + " references undeclared permission " + permission);
+                }
+            }
+        }
+    }
+
+    public static PermissionSpec permission(String name, String description) {
+        return new PermissionSpec(name, description);
+    }
+
+    public static RoleSpec role(String name, String description, String... permissions) {
+        return new RoleSpec(name, description, Set.of(permissions));
+    }
+
+    /**
+     * SHA-256 over a canonical (sorted) rendering, so declaration order doesn't matter
+     */
+    public String fingerprint() {
+        StringBuilder canonical = new StringBuilder();
+        permissions.stream()
+                .sorted(Comparator.comparing(PermissionSpec::name))
+                .forEach(p -> canonical.append("P\0").append(p.name()).append('\0').append(p.description()).append('\n'));
+        roles.stream()
+                .sorted(Comparator.comparing(RoleSpec::name))
+                .forEach(r -> canonical.append("R\0").append(r.name()).append('\0').append(r.description())
+                        .append('\0').append(String.join(",", new TreeSet<>(r.permissions()))).append('\n'));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
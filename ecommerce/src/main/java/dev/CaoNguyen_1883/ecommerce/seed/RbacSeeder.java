@@ -0,0 +1,242 @@
+package dev.CaoNguyen_1883.ecommerce.seed;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.UuidV7Generator;
+import dev.CaoNguyen_1883.ecommerce.user.component.RbacCatalogListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Brings the RBAC tables in line with a {@link RbacCatalog} in a fixed number of round trips:
+ * one read of the whole catalog, then one JDBC batch per kind of change.
+ * The applied catalog's fingerprint is stored in {@code seed_state}; an unchanged catalog costs two SELECTs, the
+ * fingerprint and a row count confirming the declared roles, permissions and grants are still there. A count that
+ * doesn't add up (rows deleted by hand) re-applies the catalog; a grant swapped for another one isn't noticed.
+ * Roles, permissions and grants that exist only in the database are left alone, except that a declared
+ * role's grants are reset to the declared set.
+ */
+@Component
+public class RbacSeeder {
+
+    static final String STATE_NAME = "rbac";
+
+    private static final String SYSTEM = "SYSTEM";
+
+    // Everything in one round trip; rows are told apart by kind. Link rows reuse the name/description slots.
+    private static final String READ_CATALOG_SQL = """
+            SELECT 'P' AS kind, id AS id, name AS name, description AS description, id AS ref FROM permissions
+            UNION ALL
+            SELECT 'R', id, name, description, id FROM roles
+            UNION ALL
+            SELECT 'L', role_id, '', '', permission_id FROM role_permissions
+            """;
+
+    private static final String INSERT_PERMISSION_SQL = """
+            INSERT INTO permissions (id, name, description, created_at, updated_at, created_by, updated_by, version, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, true)
+            """;
+
+    private static final String INSERT_ROLE_SQL = """
+            INSERT INTO roles (id, name, description, created_at, updated_at, created_by, updated_by, version, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, true)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RbacCatalogListener catalogListener;
+
+    public RbacSeeder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      RbacCatalogListener catalogListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogListener = catalogListener;
+    }
+
+    public record Result(boolean skipped, int permissionsCreated, int rolesCreated,
+                         int descriptionsUpdated, int grantsAdded, int grantsRemoved) {
+        static Result unchanged() {
+            return new Result(true, 0, 0, 0, 0, 0);
+        }
+    }
+
+    public Result seed(RbacCatalog catalog) {
+        String fingerprint = catalog.fingerprint();
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT fingerprint FROM seed_state WHERE name = ?", String.class, STATE_NAME);
+        if (!stored.isEmpty() && fingerprint.equals(stored.getFirst()) && isInPlace(catalog)) {
+            return Result.unchanged();
+        }
+        if (stored.isEmpty()) {
+            try {
+                jdbcTemplate.update("INSERT INTO seed_state (name, fingerprint, applied_at) VALUES (?, NULL, NULL)", STATE_NAME);
+            } catch (DuplicateKeyException ignored) {
+                // Another node got there first; the row lock below orders us behind it
+            }
+        }
+        return transactionTemplate.execute(status -> apply(catalog, fingerprint));
+    }
+
+    private Result apply(RbacCatalog catalog, String fingerprint) {
+        // Serializes concurrent seeders across nodes; the loser sees the winner's fingerprint and stops
+        String current = jdbcTemplate.queryForObject(
+                "SELECT fingerprint FROM seed_state WHERE name = ? FOR UPDATE", String.class, STATE_NAME);
+        if (fingerprint.equals(current) && isInPlace(catalog)) {
+            return Result.unchanged();
+        }
+
+        Snapshot existing = readCatalog();
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> changedPermissions = new HashSet<>();
+        Set<UUID> changedRoles = new HashSet<>();
+
+        List<Object[]> newPermissions = new ArrayList<>();
+        for (RbacCatalog.PermissionSpec spec : catalog.permissions()) {
+            if (!existing.permissions.containsKey(spec.name())) {
+                UUID id = UuidV7Generator.next();
+                existing.permissions.put(spec.name(), new Row(id, spec.description()));
+                newPermissions.add(new Object[]{bytes(id), spec.name(), spec.description(), now, now, SYSTEM, SYSTEM});
+                changedPermissions.add(id);
+            }
+        }
+        List<Object[]> newRoles = new ArrayList<>();
+        for (RbacCatalog.RoleSpec spec : catalog.roles()) {
+            if (!existing.roles.containsKey(spec.name())) {
+                UUID id = UuidV7Generator.next();
+                existing.roles.put(spec.name(), new Row(id, spec.description()));
+                newRoles.add(new Object[]{bytes(id), spec.name(), spec.description(), now, now, SYSTEM, SYSTEM});
+                changedRoles.add(id);
+            }
+        }
+
+        List<Object[]> permissionDescriptions = descriptionUpdates(catalog.permissions().stream()
+                .map(p -> Map.entry(p.name(), p.description())).toList(), existing.permissions, now, changedPermissions);
+        List<Object[]> roleDescriptions = descriptionUpdates(catalog.roles().stream()
+                .map(r -> Map.entry(r.name(), r.description())).toList(), existing.roles, now, changedRoles);
+
+        List<Object[]> grants = new ArrayList<>();
+        List<Object[]> revokes = new ArrayList<>();
+        for (RbacCatalog.RoleSpec spec : catalog.roles()) {
+            UUID roleId = existing.roles.get(spec.name()).id();
+            Set<UUID> wanted = new HashSet<>();
+            if (spec.grantsAll()) {
+                existing.permissions.values().forEach(row -> wanted.add(row.id()));
+            } else {
+                spec.permissions().forEach(name -> wanted.add(existing.permissions.get(name).id()));
+            }
+            Set<UUID> granted = existing.grants.getOrDefault(roleId, Set.of());
+            for (UUID permissionId : wanted) {
+                if (!granted.contains(permissionId)) {
+                    grants.add(new Object[]{bytes(roleId), bytes(permissionId)});
+                    changedRoles.add(roleId);
+                }
+            }
+            for (UUID permissionId : granted) {
+                if (!wanted.contains(permissionId)) {
+                    revokes.add(new Object[]{bytes(roleId), bytes(permissionId)});
+                    changedRoles.add(roleId);
+                }
+            }
+        }
+
+        batch(INSERT_PERMISSION_SQL, newPermissions);
+        batch(INSERT_ROLE_SQL, newRoles);
+        batch("UPDATE permissions SET description = ?, updated_at = ?, updated_by = ?, version = version + 1 WHERE id = ?",
+                permissionDescriptions);
+        batch("UPDATE roles SET description = ?, updated_at = ?, updated_by = ?, version = version + 1 WHERE id = ?",
+                roleDescriptions);
+        batch("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)", grants);
+        batch("DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ?", revokes);
+        jdbcTemplate.update("UPDATE seed_state SET fingerprint = ?, applied_at = ? WHERE name = ?", fingerprint, now, STATE_NAME);
+
+        // JDBC writes bypass the entity callbacks, so report them explicitly; applied after commit
+        catalogListener.recordBulkChange(changedRoles, changedPermissions);
+
+        return new Result(false, newPermissions.size(), newRoles.size(),
+                permissionDescriptions.size() + roleDescriptions.size(), grants.size(), revokes.size());
+    }
+
+    private boolean isInPlace(RbacCatalog catalog) {
+        List<String> roleNames = catalog.roles().stream().map(RbacCatalog.RoleSpec::name).toList();
+        List<String> permissionNames = catalog.permissions().stream().map(RbacCatalog.PermissionSpec::name).toList();
+        String roles = placeholders(roleNames.size());
+        String sql = "SELECT (SELECT COUNT(*) FROM roles WHERE name IN (" + roles + ")), "
+                + "(SELECT COUNT(*) FROM permissions WHERE name IN (" + placeholders(permissionNames.size()) + ")), "
+                + "(SELECT COUNT(*) FROM permissions), "
+                + "(SELECT COUNT(*) FROM role_permissions rp JOIN roles r ON r.id = rp.role_id WHERE r.name IN (" + roles + "))";
+        List<Object> args = new ArrayList<>(roleNames);
+        args.addAll(permissionNames);
+        args.addAll(roleNames);
+        return Boolean.TRUE.equals(jdbcTemplate.query(sql, rs -> {
+            rs.next();
+            long allPermissions = rs.getLong(3);
+            long expectedGrants = 0;
+            for (RbacCatalog.RoleSpec spec : catalog.roles()) {
+                expectedGrants += spec.grantsAll() ? allPermissions : spec.permissions().size();
+            }
+            return rs.getLong(1) == roleNames.size() && rs.getLong(2) == permissionNames.size()
+                    && rs.getLong(4) == expectedGrants;
+        }, args.toArray()));
+    }
+
+    // IN () is invalid SQL; a NULL never matches
+    private static String placeholders(int count) {
+        return count == 0 ? "NULL" : String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static List<Object[]> descriptionUpdates(List<Map.Entry<String, String>> declared, Map<String, Row> existing,
+                                                     LocalDateTime now, Set<UUID> changed) {
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<String, String> entry : declared) {
+            Row row = existing.get(entry.getKey());
+            if (!Objects.equals(row.description(), entry.getValue())) {
+                updates.add(new Object[]{entry.getValue(), now, SYSTEM, bytes(row.id())});
+                changed.add(row.id());
+            }
+        }
+        return updates;
+    }
+
+    private Snapshot readCatalog() {
+        Snapshot snapshot = new Snapshot();
+        jdbcTemplate.query(READ_CATALOG_SQL, rs -> {
+            UUID id = uuid(rs.getBytes("id"));
+            switch (rs.getString("kind")) {
+                case "P" -> snapshot.permissions.put(rs.getString("name"), new Row(id, rs.getString("description")));
+                case "R" -> snapshot.roles.put(rs.getString("name"), new Row(id, rs.getString("description")));
+                default -> snapshot.grants.computeIfAbsent(id, k -> new HashSet<>()).add(uuid(rs.getBytes("ref")));
+            }
+        });
+        return snapshot;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    // Ids are BINARY(16), big-endian; same layout Hibernate writes for BaseEntity#id
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private record Row(UUID id, String description) {
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Row> permissions = new HashMap<>();
+        private final Map<String, Row> roles = new HashMap<>();
+        private final Map<UUID, Set<UUID>> grants = new HashMap<>();
+    }
+}
@@ -0,0 +1,31 @@
+package dev.CaoNguyen_1883.ecommerce.seed;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fingerprint of the last catalog a seeder applied. Written with plain JDBC by {@link RbacSeeder};
+ * mapped only so the schema is managed with the rest of the tables.
+ */
+@Entity
+@Table(name = "seed_state")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SeedState {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(length = 64)
+    private String fingerprint;
+
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,227 @@
+package dev.CaoNguyen_1883.ecommerce.user.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import dev.CaoNguyen_1883.ecommerce.user.repository.PermissionRepository;
+import dev.CaoNguyen_1883.ecommerce.user.repository.RoleRepository;
+import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Compiled view of the RBAC catalog.
+ * Every permission gets a dense ordinal and every role an immutable bitset over those ordinals,
+ * so a permission check for a user is a single bit test on the OR of their role bitsets.
+ * The snapshot is replaced as a whole; readers never see a half-built catalog.
+ * <p>
+ * Invalidations are broadcast over Redis pub/sub, so a role or grant change reaches every node's snapshot and
+ * per-user cache. A node that misses a message (Redis down, subscription reconnecting) still rebuilds once its
+ * snapshot is older than {@code app.security.permission-cache.ttl}.
+ */
+@Slf4j
+@Component
+public class PermissionRegistry {
+
+    private static final String CATALOG = "*";
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final UserRepository userRepository;
+    private final Cache<UUID, UserGrants> userGrants;
+    private final long snapshotTtlNanos;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    public PermissionRegistry(
+            RoleRepository roleRepository,
+            PermissionRepository permissionRepository,
+            UserRepository userRepository,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${app.redis.namespace:ecommerce}") String namespace,
+            @Value("${app.security.permission-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.permission-cache.ttl:15m}") Duration ttl) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+        this.userRepository = userRepository;
+        this.userGrants = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.snapshotTtlNanos = ttl.toNanos();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = namespace + ":rbac-invalidation";
+        redisMessageListenerContainer.addMessageListener(this::onMessage, new ChannelTopic(channel));
+    }
+
+    public boolean hasPermission(UUID userId, String permissionName) {
+        Snapshot current = snapshot();
+        Integer ordinal = current.permissionOrdinals().get(permissionName);
+        return ordinal != null && isSet(grantsFor(userId, current).permissions(), ordinal);
+    }
+
+    public boolean hasRole(UUID userId, String roleName) {
+        Snapshot current = snapshot();
+        Integer ordinal = current.roleOrdinals().get(roleName);
+        return ordinal != null && isSet(grantsFor(userId, current).roles(), ordinal);
+    }
+
+    /**
+     * Mark the compiled catalog as outdated on every node; the next check rebuilds it.
+     */
+    public void invalidate() {
+        stale = true;
+        publish(CATALOG);
+    }
+
+    /**
+     * Drop a user's compiled grants on every node, after their role assignments changed
+     */
+    public void evictUser(UUID userId) {
+        if (userId != null) {
+            userGrants.invalidate(userId);
+            publish(userId.toString());
+        }
+    }
+
+    // "<origin node> <user id>", or the catalog marker instead of a user id
+    private void publish(String target) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + " " + target);
+        } catch (DataAccessException ex) {
+            // Other nodes catch up when their snapshot reaches its TTL
+            log.warn("Could not broadcast RBAC invalidation for {}: {}", target, ex.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (CATALOG.equals(parts[1])) {
+            stale = true;
+            return;
+        }
+        try {
+            userGrants.invalidate(UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed RBAC invalidation: {}", parts[1]);
+        }
+    }
+
+    public synchronized void rebuild() {
+        // Cleared before reading so an invalidate() racing with this rebuild triggers another one
+        stale = false;
+
+        List<Permission> permissions = new ArrayList<>(permissionRepository.findAll());
+        permissions.sort(Comparator.comparing(Permission::getName));
+
+        Map<String, Integer> permissionOrdinals = new HashMap<>();
+        for (Permission permission : permissions) {
+            permissionOrdinals.put(permission.getName(), permissionOrdinals.size());
+        }
+
+        List<Role> roles = new ArrayList<>(roleRepository.findAllWithPermissions());
+        roles.sort(Comparator.comparing(Role::getName));
+
+        Map<String, Integer> roleOrdinals = new HashMap<>();
+        Map<String, long[]> roleBits = new HashMap<>();
+        int words = wordsFor(permissionOrdinals.size());
+        for (Role role : roles) {
+            roleOrdinals.put(role.getName(), roleOrdinals.size());
+            long[] bits = new long[words];
+            for (Permission permission : role.getPermissions()) {
+                Integer ordinal = permissionOrdinals.get(permission.getName());
+                if (ordinal != null) {
+                    bits[ordinal >>> 6] |= 1L << ordinal;
+                }
+            }
+            roleBits.put(role.getName(), bits);
+        }
+
+        snapshot = new Snapshot(Map.copyOf(permissionOrdinals), Map.copyOf(roleOrdinals), Map.copyOf(roleBits), words,
+                System.nanoTime());
+        userGrants.invalidateAll();
+        log.info("Compiled RBAC catalog: {} permissions, {} roles", permissionOrdinals.size(), roleOrdinals.size());
+    }
+
+    private Snapshot snapshot() {
+        if (isOutdated()) {
+            synchronized (this) {
+                if (isOutdated()) {
+                    rebuild();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean isOutdated() {
+        Snapshot current = snapshot;
+        return stale || current == null || System.nanoTime() - current.builtAt() > snapshotTtlNanos;
+    }
+
+    private UserGrants grantsFor(UUID userId, Snapshot current) {
+        UserGrants grants = userGrants.get(userId, id -> compile(id, current));
+        // Entries compiled against a previous snapshot are recompiled lazily
+        if (grants.snapshot() != current) {
+            grants = compile(userId, current);
+            userGrants.put(userId, grants);
+        }
+        return grants;
+    }
+
+    private UserGrants compile(UUID userId, Snapshot current) {
+        long[] permissions = new long[current.words()];
+        long[] roles = new long[wordsFor(current.roleOrdinals().size())];
+        for (String roleName : userRepository.findRoleNamesByUserId(userId)) {
+            Integer roleOrdinal = current.roleOrdinals().get(roleName);
+            if (roleOrdinal == null) {
+                continue;
+            }
+            roles[roleOrdinal >>> 6] |= 1L << roleOrdinal;
+            long[] bits = current.roleBits().get(roleName);
+            for (int i = 0; i < bits.length; i++) {
+                permissions[i] |= bits[i];
+            }
+        }
+        return new UserGrants(current, roles, permissions);
+    }
+
+    private static boolean isSet(long[] bits, int ordinal) {
+        int word = ordinal >>> 6;
+        return word < bits.length && (bits[word] & (1L << ordinal)) != 0;
+    }
+
+    private static int wordsFor(int size) {
+        return Math.max(1, (size + 63) >>> 6);
+    }
+
+    private record Snapshot(
+            Map<String, Integer> permissionOrdinals,
+            Map<String, Integer> roleOrdinals,
+            Map<String, long[]> roleBits,
+            int words,
+            long builtAt) {
+    }
+
+    private record UserGrants(Snapshot snapshot, long[] roles, long[] permissions) {
+    }
+}
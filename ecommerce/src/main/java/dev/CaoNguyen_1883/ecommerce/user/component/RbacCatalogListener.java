@@ -0,0 +1,129 @@
+package dev.CaoNguyen_1883.ecommerce.user.component;
+
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheTagIndex;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Invalidates the compiled {@link PermissionRegistry} and the cached RBAC DTOs whenever a role or permission changes.
+ * Updates evict only the entries tagged with the changed role/permission; creations and removals also clear the
+ * list cache of that type, since the membership of the list changed.
+ * Changes are collected per transaction and applied once, after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class RbacCatalogListener {
+
+    private static final String SYNC_KEY = RbacCatalogListener.class.getName() + ".invalidate";
+
+    // Resolved lazily: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<PermissionRegistry> permissionRegistry;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ObjectProvider<CacheTagIndex> cacheTagIndex;
+
+    @PostPersist
+    @PostRemove
+    public void afterMembershipChange(Object entity) {
+        record(entity, true);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        record(entity, false);
+    }
+
+    /**
+     * For bulk writes that bypass JPA (e.g. the RBAC seeder); treated as creations of the given rows
+     */
+    public void recordBulkChange(Collection<UUID> roleIds, Collection<UUID> permissionIds) {
+        Pending change = new Pending();
+        roleIds.forEach(id -> change.tags.add("role:" + id));
+        permissionIds.forEach(id -> change.tags.add("permission:" + id));
+        if (!roleIds.isEmpty()) {
+            change.clearedCaches.add("roles");
+        }
+        if (!permissionIds.isEmpty()) {
+            change.clearedCaches.add("permissions");
+        }
+        schedule(change);
+    }
+
+    private void record(Object entity, boolean membershipChanged) {
+        Pending change = new Pending();
+        if (entity instanceof Role role) {
+            change.tags.add("role:" + role.getId());
+            if (membershipChanged) {
+                change.clearedCaches.add("roles");
+            }
+        } else if (entity instanceof Permission permission) {
+            change.tags.add("permission:" + permission.getId());
+            if (membershipChanged) {
+                change.clearedCaches.add("permissions");
+            }
+        }
+        schedule(change);
+    }
+
+    private void schedule(Pending change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(change);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(SYNC_KEY);
+        if (pending != null) {
+            pending.merge(change);
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(SYNC_KEY, change);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SYNC_KEY);
+                if (status == STATUS_COMMITTED) {
+                    invalidate(change);
+                }
+            }
+        });
+    }
+
+    private void invalidate(Pending change) {
+        // Absent in slice tests and before the context is fully up
+        permissionRegistry.ifAvailable(PermissionRegistry::invalidate);
+        cacheTagIndex.ifAvailable(index -> index.evictTags(change.tags));
+        CacheManager caches = cacheManager.getIfAvailable();
+        if (caches == null) {
+            return;
+        }
+        for (String cacheName : change.clearedCaches) {
+            Cache cache = caches.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static final class Pending {
+        private final Set<String> tags = new HashSet<>();
+        private final Set<String> clearedCaches = new HashSet<>();
+
+        void merge(Pending other) {
+            tags.addAll(other.tags);
+            clearedCaches.addAll(other.clearedCaches);
+        }
+    }
+}
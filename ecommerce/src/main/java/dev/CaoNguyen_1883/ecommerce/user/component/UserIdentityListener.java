@@ -0,0 +1,63 @@
+package dev.CaoNguyen_1883.ecommerce.user.component;
+
+import dev.CaoNguyen_1883.ecommerce.user.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps {@link UserIdentityResolver} and the per-user grants of {@link PermissionRegistry}
+ * consistent with the users table.
+ * Evictions run after commit so a concurrent lookup cannot re-cache the old row.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdentityListener {
+
+    // Resolved lazily: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<UserIdentityResolver> userIdentityResolver;
+    private final ObjectProvider<PermissionRegistry> permissionRegistry;
+
+    @PostUpdate
+    public void afterUpdate(User user) {
+        boolean emailChanged = !Objects.equals(user.getLoadedEmail(), user.getEmail());
+        boolean deactivated = !Boolean.TRUE.equals(user.getIsActive());
+        if (emailChanged || deactivated) {
+            evictAfterCommit(user.getLoadedEmail(), user.getEmail(), null);
+        }
+        // Role assignments bump the version, so every update may have changed the user's grants
+        evictAfterCommit(null, null, user.getId());
+        user.markEmailLoaded();
+    }
+
+    @PostRemove
+    public void afterRemove(User user) {
+        evictAfterCommit(user.getLoadedEmail(), user.getEmail(), user.getId());
+    }
+
+    private void evictAfterCommit(String oldEmail, String newEmail, UUID userId) {
+        Runnable eviction = () -> {
+            UserIdentityResolver resolver = userIdentityResolver.getObject();
+            resolver.evict(oldEmail);
+            resolver.evict(newEmail);
+            permissionRegistry.getObject().evictUser(userId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package dev.CaoNguyen_1883.ecommerce.user.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the authenticated principal to a user id without loading the User entity.
+ * Tokens carrying the {@value #USER_ID_CLAIM} claim are resolved in memory; older tokens
+ * fall back to a bounded email -> id cache backed by a single-column query.
+ */
+@Slf4j
+@Component
+public class UserIdentityResolver {
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final UserRepository userRepository;
+    private final Cache<String, UUID> emailToUserId;
+
+    public UserIdentityResolver(
+            UserRepository userRepository,
+            @Value("${app.security.identity-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.identity-cache.ttl:15m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.emailToUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<UUID> resolveUserId(Jwt jwt) {
+        String claim = jwt.getClaimAsString(USER_ID_CLAIM);
+        if (claim != null) {
+            try {
+                return Optional.of(UUID.fromString(claim));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed {} claim for subject {}", USER_ID_CLAIM, jwt.getSubject());
+            }
+        }
+        return resolveUserId(jwt.getSubject());
+    }
+
+    public Optional<UUID> resolveUserId(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        // Unknown emails are not cached, so a user created later is picked up on the next call
+        return Optional.ofNullable(emailToUserId.get(email,
+                key -> userRepository.findActiveIdByEmail(key).orElse(null)));
+    }
+
+    /**
+     * Drop the cached mapping for an email, e.g. after the email changed or the user was deactivated.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            emailToUserId.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        emailToUserId.invalidateAll();
+    }
+}
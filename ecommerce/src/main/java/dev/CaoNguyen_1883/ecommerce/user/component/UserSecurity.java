@@ -1,18 +1,38 @@
 package dev.CaoNguyen_1883.ecommerce.user.component;
 
-import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Checks for {@code @PreAuthorize} expressions, e.g. {@code @userSecurity.hasPermission(authentication, 'user:view')}.
+ * Roles and permissions are answered by {@link PermissionRegistry} from the database grants, not from token claims,
+ * so a revoked role stops working before the token expires: on every node once the registry's invalidation
+ * broadcast arrives, and within {@code app.security.permission-cache.ttl} at the latest.
+ */
 @Component("userSecurity")
 @RequiredArgsConstructor
 public class UserSecurity {
     
-    private final UserRepository userRepository;
+    private final UserIdentityResolver userIdentityResolver;
+    private final PermissionRegistry permissionRegistry;
+
+    public boolean hasPermission(Authentication authentication, String permissionName) {
+        return currentUserId(authentication)
+                .map(id -> permissionRegistry.hasPermission(id, permissionName))
+                .orElse(false);
+    }
+
+    public boolean hasRole(Authentication authentication, String roleName) {
+        return currentUserId(authentication)
+                .map(id -> permissionRegistry.hasRole(id, roleName))
+                .orElse(false);
+    }
     
     public boolean isSelf(Authentication authentication, UUID userId) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -23,10 +43,8 @@ public class UserSecurity {
             return false;
         }
         
-        String email = jwt.getSubject();
-        
-        return userRepository.findByEmail(email)
-                .map(user -> user.getId().equals(userId))
+        return userIdentityResolver.resolveUserId(jwt)
+                .map(id -> id.equals(userId))
                 .orElse(false);
     }
     
@@ -44,24 +62,16 @@ public class UserSecurity {
     }
 
     public boolean isAdminOrSelf(Authentication authentication, UUID userId) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
-        }
-
-        if (!(authentication.getPrincipal() instanceof Jwt jwt)) {
-            return false;
-        }
+        return currentUserId(authentication)
+                .map(id -> id.equals(userId) || permissionRegistry.hasRole(id, Role.ADMIN))
+                .orElse(false);
+    }
 
-        // Check if user has ADMIN role
-        var authorities = jwt.getClaimAsStringList("roles");
-        if (authorities != null && authorities.contains("ROLE_ADMIN")) {
-            return true;
+    private Optional<UUID> currentUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof Jwt jwt)) {
+            return Optional.empty();
         }
-
-        // Check if it's the same user
-        String email = jwt.getSubject();
-        return userRepository.findByEmail(email)
-                .map(user -> user.getId().equals(userId))
-                .orElse(false);
+        return userIdentityResolver.resolveUserId(jwt);
     }
 }
\ No newline at end of file
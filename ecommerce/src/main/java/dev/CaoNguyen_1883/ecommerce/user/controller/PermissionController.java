@@ -4,17 +4,27 @@ import dev.CaoNguyen_1883.ecommerce.common.response.ApiResponse;
 import dev.CaoNguyen_1883.ecommerce.user.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("api/v1/permissions")
 @RequiredArgsConstructor
+@PreAuthorize("@userSecurity.hasRole(authentication, 'ROLE_ADMIN')")
 public class PermissionController {
     private final RoleService roleService;
     @GetMapping
     public ResponseEntity<ApiResponse> findAll() {
         return ResponseEntity.ok(ApiResponse.success(roleService.getAllPermissions()));
     }
+
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse> findPage(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "false") boolean count) {
+        return ResponseEntity.ok(ApiResponse.success(roleService.getPermissionPage(cursor, size, count)));
+    }
 }
@@ -4,6 +4,7 @@ import dev.CaoNguyen_1883.ecommerce.common.response.ApiResponse;
 import dev.CaoNguyen_1883.ecommerce.user.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +15,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("api/v1/roles")
 @RequiredArgsConstructor
+@PreAuthorize("@userSecurity.hasRole(authentication, 'ROLE_ADMIN')")
 public class RoleController {
     private final RoleService roleService;
     @GetMapping
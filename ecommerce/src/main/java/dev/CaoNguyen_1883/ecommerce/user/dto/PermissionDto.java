@@ -1,21 +1,28 @@
 package dev.CaoNguyen_1883.ecommerce.user.dto;
 
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheTagged;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class PermissionDto {
+public class PermissionDto implements CacheTagged {
     private UUID id;
     private String name;
     private String description;
     private LocalDateTime createdAt;
     private String createdBy;
+
+    @Override
+    public Set<String> cacheTags() {
+        return Set.of("permission:" + id);
+    }
 }
@@ -1,11 +1,13 @@
 package dev.CaoNguyen_1883.ecommerce.user.dto;
 
+import dev.CaoNguyen_1883.ecommerce.common.cache.CacheTagged;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
@@ -13,11 +15,21 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class RoleDto {
+public class RoleDto implements CacheTagged {
     private UUID id;
     private String name;
     private String description;
     private Set<PermissionDto> permissions;
     private LocalDateTime createdAt;
     private String createdBy;
+
+    @Override
+    public Set<String> cacheTags() {
+        Set<String> tags = new HashSet<>();
+        tags.add("role:" + id);
+        if (permissions != null) {
+            permissions.forEach(permission -> tags.add("permission:" + permission.getId()));
+        }
+        return tags;
+    }
 }
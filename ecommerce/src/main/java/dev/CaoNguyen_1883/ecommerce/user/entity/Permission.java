@@ -1,11 +1,16 @@
 package dev.CaoNguyen_1883.ecommerce.user.entity;
 
 import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.user.component.RbacCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "permissions", indexes = @Index(name = "idx_permission_name", columnList = "name"))
+@Table(name = "permissions", indexes = {
+        @Index(name = "idx_permission_name", columnList = "name"),
+        @Index(name = "idx_permission_created_at_id", columnList = "created_at, id")
+})
+@EntityListeners(RbacCatalogListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,9 @@
 package dev.CaoNguyen_1883.ecommerce.user.entity;
 
+import dev.CaoNguyen_1883.ecommerce.common.cache.EvictTombstonesOnCreate;
+import dev.CaoNguyen_1883.ecommerce.common.cache.TombstoneEvictionListener;
 import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.user.component.RbacCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,7 +11,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "roles", indexes = @Index(name = "idx_role_name", columnList = "name"))
+@Table(name = "roles", indexes = {
+        @Index(name = "idx_role_name", columnList = "name"),
+        @Index(name = "idx_role_created_at_id", columnList = "created_at, id")
+})
+@EntityListeners({RbacCatalogListener.class, TombstoneEvictionListener.class})
+@EvictTombstonesOnCreate("roleDetails")
+@NamedEntityGraph(name = Role.WITH_PERMISSIONS, attributeNodes = @NamedAttributeNode("permissions"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,6 +25,8 @@ import java.util.Set;
 @Builder
 public class Role extends BaseEntity {
 
+    public static final String WITH_PERMISSIONS = "Role.withPermissions";
+
     @Column(unique = true, nullable = false, length = 50)
     private String name;
 
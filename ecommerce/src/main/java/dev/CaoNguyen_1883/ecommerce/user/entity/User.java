@@ -2,6 +2,7 @@ package dev.CaoNguyen_1883.ecommerce.user.entity;
 
 import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
 import dev.CaoNguyen_1883.ecommerce.common.enums.AuthProvider;
+import dev.CaoNguyen_1883.ecommerce.user.component.UserIdentityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,15 +12,22 @@ import java.util.Set;
 @Entity
 @Table(name = "users", indexes = {
         @Index(name = "idx_email", columnList = "email"),
-        @Index(name = "idx_provider", columnList = "provider,providerId")
+        @Index(name = "idx_provider", columnList = "provider,providerId", unique = true),
+        @Index(name = "idx_user_created_at_id", columnList = "created_at, id")
 })
+@EntityListeners(UserIdentityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@NamedEntityGraph(name = User.WITH_ROLES_AND_PERMISSIONS,
+        attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "roles"),
+        subgraphs = @NamedSubgraph(name = "roles", attributeNodes = @NamedAttributeNode("permissions")))
 public class User extends BaseEntity {
 
+    public static final String WITH_ROLES_AND_PERMISSIONS = "User.withRolesAndPermissions";
+
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -54,6 +62,17 @@ public class User extends BaseEntity {
     @Builder.Default
     private boolean emailVerified = false;
 
+    // Email as last read from the database, used to detect email changes on update
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String loadedEmail;
+
+    @PostLoad
+    @PostPersist
+    public void markEmailLoaded() {
+        this.loadedEmail = this.email;
+    }
+
     // Helper methods
     public void assignRole(Role role) {
         this.roles.add(role);
@@ -63,6 +82,7 @@ public class User extends BaseEntity {
         this.roles.remove(role);
     }
 
+    // Walks the role/permission graph (load it with a fetch plan); request-path checks go through UserSecurity
     public boolean hasRole(String roleName) {
         return this.roles.stream()
                 .anyMatch(role -> role.getName().equals(roleName));
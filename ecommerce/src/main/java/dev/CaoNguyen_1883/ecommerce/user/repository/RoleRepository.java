@@ -1,9 +1,10 @@
 package dev.CaoNguyen_1883.ecommerce.user.repository;
 
+import dev.CaoNguyen_1883.ecommerce.common.pagination.KeysetRepository;
 import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,9 +13,17 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
-public interface RoleRepository extends JpaRepository<Role, UUID> {
+public interface RoleRepository extends KeysetRepository<Role> {
     Optional<Role> findByName(String name);
     Optional<Role> findById(UUID id);
     Boolean existsByName(String name);
 
+    // Fetch plans: load the permissions in the same statement, so DTO mapping never triggers lazy loads
+
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions")
+    List<Role> findAllWithPermissions();
+
+    @EntityGraph(Role.WITH_PERMISSIONS)
+    Optional<Role> findWithPermissionsById(UUID id);
+
 }
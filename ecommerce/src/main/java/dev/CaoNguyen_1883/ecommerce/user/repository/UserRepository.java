@@ -1,21 +1,69 @@
 package dev.CaoNguyen_1883.ecommerce.user.repository;
 
+import dev.CaoNguyen_1883.ecommerce.common.pagination.KeysetRepository;
+import dev.CaoNguyen_1883.ecommerce.common.enums.AuthProvider;
 import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
 import dev.CaoNguyen_1883.ecommerce.user.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends KeysetRepository<User> {
 
     Optional<User> findByEmail(String email);
 
+    // Whole user -> roles -> permissions graph in one statement
+    @EntityGraph(User.WITH_ROLES_AND_PERMISSIONS)
+    Optional<User> findWithRolesAndPermissionsById(UUID id);
+
+    @EntityGraph(User.WITH_ROLES_AND_PERMISSIONS)
+    Optional<User> findWithRolesAndPermissionsByEmail(String email);
+
     Boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.email = :email AND u.isActive = true")
+    Optional<UUID> findActiveIdByEmail(@Param("email") String email);
+
+    @Query("SELECT r.name FROM User u JOIN u.roles r WHERE u.id = :userId")
+    Set<String> findRoleNamesByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    List<UUID> findIdsByRoleName(@Param("roleName") String roleName);
+
+    @Query("SELECT u.id FROM User u WHERE u.provider = :provider AND u.providerId = :providerId")
+    Optional<UUID> findIdByProvider(@Param("provider") AuthProvider provider, @Param("providerId") String providerId);
+
+    // No-op on a duplicate (provider, provider_id) or email, so concurrent first logins never fail.
+    // An email collision leaves no row for the provider identity; the caller must not fall back to the email owner
+    @Modifying
+    @Query(value = """
+            INSERT INTO users (id, email, full_name, avatar_url, provider, provider_id, email_verified,
+                               is_active, version, created_at, updated_at, created_by, updated_by)
+            VALUES (:id, :email, :fullName, :avatarUrl, :provider, :providerId, :emailVerified,
+                    true, 0, NOW(6), NOW(6), 'SYSTEM', 'SYSTEM')
+            ON DUPLICATE KEY UPDATE id = id
+            """, nativeQuery = true)
+    int insertSocialUserIfAbsent(@Param("id") UUID id,
+                                 @Param("email") String email,
+                                 @Param("fullName") String fullName,
+                                 @Param("avatarUrl") String avatarUrl,
+                                 @Param("provider") String provider,
+                                 @Param("providerId") String providerId,
+                                 @Param("emailVerified") boolean emailVerified);
+
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO user_roles (user_id, role_id)
+            SELECT :userId, r.id FROM roles r WHERE r.name = :roleName
+            """, nativeQuery = true)
+    int assignRoleByName(@Param("userId") UUID userId, @Param("roleName") String roleName);
+
 }
@@ -1,5 +1,6 @@
 package dev.CaoNguyen_1883.ecommerce.user.service;
 
+import dev.CaoNguyen_1883.ecommerce.common.response.CursorPage;
 import dev.CaoNguyen_1883.ecommerce.user.dto.PermissionDto;
 import dev.CaoNguyen_1883.ecommerce.user.dto.RoleDto;
 
@@ -9,5 +10,6 @@ import java.util.UUID;
 public interface RoleService {
     List<RoleDto> getAllRoles();
     List<PermissionDto> getAllPermissions();
+    CursorPage<PermissionDto> getPermissionPage(String cursor, int size, boolean approximateCount);
     RoleDto getRoleById(UUID id);
 }
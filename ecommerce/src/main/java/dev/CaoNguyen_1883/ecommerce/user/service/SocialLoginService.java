@@ -0,0 +1,23 @@
+package dev.CaoNguyen_1883.ecommerce.user.service;
+
+import dev.CaoNguyen_1883.ecommerce.common.enums.AuthProvider;
+
+import java.util.UUID;
+
+public interface SocialLoginService {
+    /**
+     * Signs in the account owning this provider identity, creating one on first login. Never matches on email:
+     * if the email already belongs to another account, fails with DuplicateResourceException and the user has to
+     * sign in to that account and call {@link #linkProvider}.
+     *
+     * @param emailVerified the provider's own verified-email claim
+     */
+    UUID findOrCreateUser(AuthProvider provider, String providerId, String email, boolean emailVerified,
+                          String fullName, String avatarUrl);
+
+    /**
+     * Attaches a provider identity to an existing account. Only call this for an already authenticated session,
+     * with {@code userId} taken from that session and the identity from a completed OAuth2 login.
+     */
+    void linkProvider(UUID userId, AuthProvider provider, String providerId);
+}
@@ -1,6 +1,7 @@
 package dev.CaoNguyen_1883.ecommerce.user.service.impl;
 
 import dev.CaoNguyen_1883.ecommerce.common.exception.ResourceNotFoundException;
+import dev.CaoNguyen_1883.ecommerce.common.response.CursorPage;
 import dev.CaoNguyen_1883.ecommerce.user.dto.PermissionDto;
 import dev.CaoNguyen_1883.ecommerce.user.dto.RoleDto;
 import dev.CaoNguyen_1883.ecommerce.user.mapper.PermissionMapper;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -27,21 +29,31 @@ public class RoleServiceImpl implements RoleService {
     private final PermissionMapper permissionMapper;
 
     @Override
-    @Cacheable("roles")
+    @Cacheable(value = "roles", sync = true)
+    @Transactional(readOnly = true)
     public List<RoleDto> getAllRoles() {
-        return roleMapper.toDto(roleRepository.findAll());
+        return roleMapper.toDto(roleRepository.findAllWithPermissions());
     }
 
     @Override
-    @Cacheable("permissions")
+    @Cacheable(value = "permissions", sync = true)
+    @Transactional(readOnly = true)
     public List<PermissionDto> getAllPermissions() {
         return permissionMapper.toDtoList(permissionRepository.findAll());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PermissionDto> getPermissionPage(String cursor, int size, boolean approximateCount) {
+        return permissionRepository.findPage(null, cursor, size, approximateCount).map(permissionMapper::toDto);
+    }
+
+    @Override
+    @Cacheable(value = "roleDetails", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public RoleDto getRoleById(UUID id) {
         return roleMapper.toDto(
-            roleRepository.findById(id)
+            roleRepository.findWithPermissionsById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Role", "id", id))
         );
     }
@@ -0,0 +1,112 @@
+package dev.CaoNguyen_1883.ecommerce.user.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.CaoNguyen_1883.ecommerce.common.entity.UuidV7Generator;
+import dev.CaoNguyen_1883.ecommerce.common.enums.AuthProvider;
+import dev.CaoNguyen_1883.ecommerce.common.exception.BadRequestException;
+import dev.CaoNguyen_1883.ecommerce.common.exception.DuplicateResourceException;
+import dev.CaoNguyen_1883.ecommerce.common.exception.ResourceNotFoundException;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import dev.CaoNguyen_1883.ecommerce.user.entity.User;
+import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
+import dev.CaoNguyen_1883.ecommerce.user.service.SocialLoginService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Find-or-create for OAuth2 logins keyed on (provider, providerId) only; an email match never signs anyone in.
+ * Resolved ids are cached, and concurrent logins for the same key on one node share a single load.
+ * Across nodes the insert is one atomic upsert against the unique provider index,
+ * so racing first logins never serialize on a lock or retry on duplicate keys.
+ */
+@Slf4j
+@Service
+public class SocialLoginServiceImpl implements SocialLoginService {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, UUID> providerToUserId;
+
+    public SocialLoginServiceImpl(
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.security.social-login-cache.max-size:50000}") long maxSize,
+            @Value("${app.security.social-login-cache.ttl:1h}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.providerToUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public UUID findOrCreateUser(AuthProvider provider, String providerId, String email, boolean emailVerified,
+                                 String fullName, String avatarUrl) {
+        if (provider == AuthProvider.LOCAL || providerId == null || email == null) {
+            throw new BadRequestException("Social login requires a provider, provider id and email");
+        }
+        return providerToUserId.get(key(provider, providerId),
+                key -> resolve(provider, providerId, email, emailVerified, fullName, avatarUrl));
+    }
+
+    @Override
+    public void linkProvider(UUID userId, AuthProvider provider, String providerId) {
+        if (provider == AuthProvider.LOCAL || providerId == null) {
+            throw new BadRequestException("Linking requires a social provider and provider id");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<UUID> owner = userRepository.findIdByProvider(provider, providerId);
+            if (owner.isPresent()) {
+                if (!owner.get().equals(userId)) {
+                    throw new DuplicateResourceException("This " + provider + " account is already linked to another user");
+                }
+                return;
+            }
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+            if (user.getProvider() != AuthProvider.LOCAL) {
+                throw new BadRequestException("Account is already linked to " + user.getProvider());
+            }
+            user.setProvider(provider);
+            user.setProviderId(providerId);
+        });
+        providerToUserId.put(key(provider, providerId), userId);
+        log.info("Linked {} identity to user {}", provider, userId);
+    }
+
+    private UUID resolve(AuthProvider provider, String providerId, String email, boolean emailVerified,
+                         String fullName, String avatarUrl) {
+        return userRepository.findIdByProvider(provider, providerId)
+                .orElseGet(() -> upsert(provider, providerId, email, emailVerified, fullName, avatarUrl));
+    }
+
+    private UUID upsert(AuthProvider provider, String providerId, String email, boolean emailVerified,
+                        String fullName, String avatarUrl) {
+        UUID newId = UuidV7Generator.next();
+        return transactionTemplate.execute(status -> {
+            userRepository.insertSocialUserIfAbsent(newId, email, fullName, avatarUrl, provider.name(), providerId,
+                    emailVerified);
+            // Empty only when the email belongs to another account; linking it is the owner's explicit decision
+            UUID id = userRepository.findIdByProvider(provider, providerId)
+                    .orElseThrow(() -> new DuplicateResourceException(
+                            "An account with this email already exists; sign in to it and link " + provider));
+            if (id.equals(newId)) {
+                userRepository.assignRoleByName(id, Role.CUSTOMER);
+                log.info("Created new {} user: {}", provider, email);
+            }
+            return id;
+        });
+    }
+
+    private static String key(AuthProvider provider, String providerId) {
+        return provider + ":" + providerId;
+    }
+}
@@ -0,0 +1,49 @@
+-- Converts legacy UUID id columns (CHAR(36) / VARCHAR(36), or Hibernate 5's zero-padded BINARY(255))
+-- to BINARY(16) in big-endian byte order, the layout BaseEntity maps.
+-- Existing (v4) ids keep their value; only new rows get time-ordered v7 ids.
+-- Run once with the application stopped. Columns that are already BINARY(16) are left alone.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP PROCEDURE IF EXISTS uuid_column_to_binary16;
+
+DELIMITER //
+CREATE PROCEDURE uuid_column_to_binary16(IN tbl VARCHAR(64), IN col VARCHAR(64))
+BEGIN
+    DECLARE current_type VARCHAR(64);
+    DECLARE current_length BIGINT;
+
+    SELECT DATA_TYPE, CHARACTER_MAXIMUM_LENGTH INTO current_type, current_length
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND COLUMN_NAME = col;
+
+    IF current_type IN ('char', 'varchar') THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` MODIFY `', col, '` VARBINARY(36) NOT NULL');
+        PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+        SET @dml = CONCAT('UPDATE `', tbl, '` SET `', col, '` = UUID_TO_BIN(CONVERT(`', col, '` USING ascii))');
+        PREPARE stmt FROM @dml; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+    ELSEIF current_type = 'binary' AND current_length > 16 THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` MODIFY `', col, '` VARBINARY(', current_length, ') NOT NULL');
+        PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+        SET @dml = CONCAT('UPDATE `', tbl, '` SET `', col, '` = SUBSTRING(`', col, '`, 1, 16)');
+        PREPARE stmt FROM @dml; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+    END IF;
+
+    IF current_type IN ('char', 'varchar') OR (current_type = 'binary' AND current_length > 16) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` MODIFY `', col, '` BINARY(16) NOT NULL');
+        PREPARE stmt FROM @ddl; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL uuid_column_to_binary16('users', 'id');
+CALL uuid_column_to_binary16('roles', 'id');
+CALL uuid_column_to_binary16('permissions', 'id');
+CALL uuid_column_to_binary16('user_roles', 'user_id');
+CALL uuid_column_to_binary16('user_roles', 'role_id');
+CALL uuid_column_to_binary16('role_permissions', 'role_id');
+CALL uuid_column_to_binary16('role_permissions', 'permission_id');
+
+DROP PROCEDURE uuid_column_to_binary16;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,11 @@
+-- KEYS[1]: per-user refresh token hash, jti -> expiry (epoch millis)
+-- ARGV[1]: current time (epoch millis)
+-- Returns how many of the removed tokens had not expired yet
+local live = 0
+for _, expiresAt in ipairs(redis.call('HVALS', KEYS[1])) do
+    if tonumber(expiresAt) > tonumber(ARGV[1]) then
+        live = live + 1
+    end
+end
+redis.call('DEL', KEYS[1])
+return live
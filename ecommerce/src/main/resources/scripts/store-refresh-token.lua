@@ -0,0 +1,14 @@
+-- KEYS[1]: per-user refresh token hash, jti -> expiry (epoch millis)
+-- ARGV[1]: jti, ARGV[2]: its expiry, ARGV[3]: current time (epoch millis)
+-- Prunes expired tokens; the hash itself expires with its newest token
+local entries = redis.call('HGETALL', KEYS[1])
+for i = 1, #entries, 2 do
+    if tonumber(entries[i + 1]) <= tonumber(ARGV[3]) then
+        redis.call('HDEL', KEYS[1], entries[i])
+    end
+end
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) - tonumber(ARGV[3]) then
+    redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+end
+return 1
@@ -0,0 +1,81 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares per-request decode cost of the plain Nimbus decoder with the caching decorator.
+ * The timing comparison is tagged {@code benchmark} and runs with {@code -Pbenchmark}.
+ */
+class CachingJwtDecoderBenchmarkTest {
+
+    private static final int ITERATIONS = 20_000;
+
+    private NimbusJwtDecoder nimbusJwtDecoder;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        SecretKey key = new SecretKeySpec(
+                "benchmark-secret-benchmark-secret-0123456789".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(key).build();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("bench@example.com")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(Duration.ofMinutes(15)))
+                .claim("roles", java.util.List.of("ROLE_CUSTOMER"))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(key))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void cachedDecodeIsCheaperThanFullVerification() {
+        CachingJwtDecoder cachingJwtDecoder =
+                new CachingJwtDecoder(nimbusJwtDecoder, null, 1_000, Duration.ofMinutes(15));
+
+        long plain = run(nimbusJwtDecoder);
+        long cached = run(cachingJwtDecoder);
+
+        assertTrue(cached < plain, () -> "cached " + cached / ITERATIONS + " ns/op, nimbus " + plain / ITERATIONS + " ns/op");
+        assertEquals(nimbusJwtDecoder.decode(token).getSubject(), cachingJwtDecoder.decode(token).getSubject());
+    }
+
+    @Test
+    void hitValidatorRejectsCachedToken() {
+        CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder,
+                jwt -> OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "revoked", null)),
+                1_000, Duration.ofMinutes(15));
+
+        assertThrows(JwtValidationException.class, () -> cachingJwtDecoder.decode(token));
+        assertThrows(JwtValidationException.class, () -> cachingJwtDecoder.decode(token));
+    }
+
+    private long run(JwtDecoder decoder) {
+        // Warm up before measuring
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(token);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation profile of authority conversion: default converter vs interned sets.
+ * The allocation comparison is tagged {@code benchmark} and runs with {@code -Pbenchmark}.
+ */
+class InternedAuthoritiesConverterBenchmarkTest {
+
+    private static final int ITERATIONS = 100_000;
+
+    private final Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "HS256")
+            .subject("bench@example.com")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(900))
+            .claim("roles", List.of("ROLE_CUSTOMER", "ROLE_SELLER"))
+            .claim("scope", "CUSTOMER SELLER")
+            .build();
+
+    @Test
+    @Tag("benchmark")
+    void internedConverterAllocatesLessPerRequest() {
+        JwtGrantedAuthoritiesConverter defaultConverter = new JwtGrantedAuthoritiesConverter();
+        defaultConverter.setAuthorityPrefix("ROLE_");
+        InternedAuthoritiesConverter internedConverter = new InternedAuthoritiesConverter();
+
+        long defaultBytes = bytesPerCall(defaultConverter);
+        long internedBytes = bytesPerCall(internedConverter);
+
+        assertTrue(internedBytes < defaultBytes,
+                () -> "interned " + internedBytes + " B/op, default " + defaultBytes + " B/op");
+    }
+
+    @Test
+    void repeatedRoleSetsShareOneAuthorityCollection() {
+        InternedAuthoritiesConverter internedConverter = new InternedAuthoritiesConverter();
+
+        assertSame(internedConverter.convert(jwt), internedConverter.convert(jwt));
+    }
+
+    @Test
+    void mapsRolesClaimToPrefixedAuthorities() {
+        Collection<GrantedAuthority> authorities = new InternedAuthoritiesConverter().convert(jwt);
+
+        assertEquals(List.of("ROLE_CUSTOMER", "ROLE_SELLER"),
+                authorities.stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    private long bytesPerCall(Converter<Jwt, Collection<GrantedAuthority>> converter) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        // Warm up so JIT and first-seen caching do not skew the measurement
+        for (int i = 0; i < ITERATIONS; i++) {
+            converter.convert(jwt);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            converter.convert(jwt);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+}
@@ -0,0 +1,149 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JwtKeyStoreTest {
+
+    private static final Duration ROTATION = Duration.ofDays(30);
+    private static final Duration ACTIVATION = Duration.ofMinutes(5);
+    private static final Duration RELOAD = Duration.ofMinutes(1);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final Map<String, String> locks = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    JwtKeyStoreTest() {
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> locks.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(redis.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any()))
+                .thenAnswer(invocation -> locks.remove(((List<?>) invocation.getArgument(1)).get(0)) != null ? 1L : 0L);
+    }
+
+    @Test
+    void onlyOneNodeRotatesAndTheOthersAdoptItsKey() throws Exception {
+        JwtKeyStore nodeA = node();
+        JwtKeyStore nodeB = node();
+        assertEquals(kids(nodeA.publicKeys()), kids(nodeB.publicKeys()));
+
+        clock.advance(ROTATION.plusMinutes(1));
+        nodeA.activeKey();
+        // B hasn't reloaded and finds the same key due; under the lock it re-reads the file and keeps A's key
+        assertTrue(nodeB.rotateIfDue());
+        clock.advance(ACTIVATION.plusSeconds(1));
+
+        assertEquals(nodeA.activeKey().getKeyID(), nodeB.activeKey().getKeyID());
+        assertEquals(2, JWKSet.parse(Files.readString(keysFile(), StandardCharsets.UTF_8)).getKeys().size());
+        assertEquals(kids(nodeA.publicKeys()), kids(nodeB.publicKeys()));
+    }
+
+    @Test
+    void tokenSignedAfterAnotherNodeRotatedVerifiesOnAnUnknownKid() throws Exception {
+        JwtKeyStore signer = node();
+        JwtKeyStore verifier = node();
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new KidCachingKeySelector(verifier::reloadPublicKeys, Duration.ZERO));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        processor.process(sign(signer), null);
+
+        clock.advance(ROTATION.plusMinutes(1));
+        signer.activeKey();
+        clock.advance(ACTIVATION.plusSeconds(1));
+        String token = sign(signer);
+
+        // The selector has only seen the first key; the miss re-reads the file the signer rotated
+        assertEquals("user", processor.process(token, null).getSubject());
+    }
+
+    @Test
+    void reloadIntervalMustBeShorterThanActivationDelay() {
+        JwtKeyStore store = new JwtKeyStore(redis, "test", keysFile().toString(), false,
+                ROTATION, ACTIVATION, ACTIVATION, 900_000, clock);
+
+        assertThrows(IllegalStateException.class, store::init);
+    }
+
+    private JwtKeyStore node() {
+        JwtKeyStore store = new JwtKeyStore(redis, "test", keysFile().toString(), false,
+                ROTATION, ACTIVATION, RELOAD, 900_000, clock);
+        store.init();
+        return store;
+    }
+
+    private Path keysFile() {
+        return dir.resolve("jwks.json");
+    }
+
+    private static String sign(JwtKeyStore store) {
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(
+                (selector, context) -> selector.select(new JWKSet(store.activeKey())));
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.ES256).build(),
+                JwtClaimsSet.builder().subject("user").build())).getTokenValue();
+    }
+
+    private static List<String> kids(JWKSet set) {
+        return set.getKeys().stream().map(key -> key.getKeyID()).sorted().toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import dev.CaoNguyen_1883.ecommerce.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Throughput of the limiter with Redis stubbed out: the local pre-filter against the call overhead of
+ * checks that go through to the token bucket. Runs with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 200_000;
+    private static final int LOCAL_LIMIT = 100;
+
+    private final AtomicLong redisCalls = new AtomicLong();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPatterns(List.of("/auth/**"));
+        group.setLocalLimitPerSecond(LOCAL_LIMIT);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("auth", group);
+
+        // Stub-only: recording millions of invocations for verify() would dominate the measurement
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class, withSettings().stubOnly());
+        when(stringRedisTemplate.execute(tokenBucket(), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            redisCalls.incrementAndGet();
+            return List.of(1L, 10L);
+        });
+        rateLimiter = new RateLimiter(stringRedisTemplate, properties, "bench");
+    }
+
+    @Test
+    void singleKeyFloodIsAbsorbedLocallyAndOutpacesRedisBoundChecks() throws InterruptedException {
+        long flood = runConcurrently(i -> "ip:10.0.0.1");
+        // Only the first requests of each second ever reach Redis
+        assertTrue(redisCalls.get() <= LOCAL_LIMIT * (TimeUnit.NANOSECONDS.toSeconds(flood) + 2));
+
+        redisCalls.set(0);
+        // Enough distinct keys that the local window never trips
+        long distinct = runConcurrently(i -> "ip:10." + (i % 250) + "." + (i / 250 % 250) + "." + (i % 7));
+        assertEquals(THREADS * (long) REQUESTS_PER_THREAD, redisCalls.get());
+
+        assertTrue(flood < distinct, () -> "single key flood " + checksPerSecond(flood) + " checks/s, distinct keys "
+                + checksPerSecond(distinct) + " checks/s");
+    }
+
+    private long runConcurrently(IntFunction<String> keys) throws InterruptedException {
+        AtomicLong allowed = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    if (rateLimiter.tryAcquire("auth", keys.apply(i))) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(allowed.get() > 0);
+        return System.nanoTime() - start;
+    }
+
+    private static long checksPerSecond(long nanos) {
+        return THREADS * (long) REQUESTS_PER_THREAD * 1_000_000_000L / nanos;
+    }
+
+    private static RedisScript<List<Long>> tokenBucket() {
+        return ArgumentMatchers.any();
+    }
+}
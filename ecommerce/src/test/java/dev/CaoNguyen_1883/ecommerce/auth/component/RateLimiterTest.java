@@ -0,0 +1,93 @@
+package dev.CaoNguyen_1883.ecommerce.auth.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.CaoNguyen_1883.ecommerce.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Limiter decisions with the Redis token bucket stubbed out.
+ */
+class RateLimiterTest {
+
+    private static final int LOCAL_LIMIT = 100;
+
+    private StringRedisTemplate stringRedisTemplate;
+    private RateLimitProperties properties;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPatterns(List.of("/auth/**"));
+        group.setExcludePatterns(List.of("/auth/.well-known/**"));
+        group.setLocalLimitPerSecond(LOCAL_LIMIT);
+        properties = new RateLimitProperties();
+        properties.getGroups().put("auth", group);
+
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        allowInRedis(true);
+        rateLimiter = new RateLimiter(stringRedisTemplate, properties, "test");
+    }
+
+    @Test
+    void localWindowAbsorbsFloodFromSingleKey() {
+        int allowed = 0;
+        for (int i = 0; i < 10 * LOCAL_LIMIT; i++) {
+            if (rateLimiter.tryAcquire("auth", "ip:10.0.0.1")) {
+                allowed++;
+            }
+        }
+
+        // At most two windows if the loop straddles a second boundary
+        assertTrue(allowed >= LOCAL_LIMIT && allowed <= 2 * LOCAL_LIMIT, "allowed " + allowed);
+        verify(stringRedisTemplate, times(allowed)).execute(tokenBucket(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void distinctKeysAreDecidedByRedis() {
+        for (int i = 0; i < 500; i++) {
+            assertTrue(rateLimiter.tryAcquire("auth", "ip:10.0." + (i / 250) + "." + (i % 250)));
+        }
+        verify(stringRedisTemplate, times(500)).execute(tokenBucket(), anyList(), any(Object[].class));
+
+        allowInRedis(false);
+        assertFalse(rateLimiter.tryAcquire("auth", "ip:10.0.9.9"));
+    }
+
+    @Test
+    void failsOpenWhenRedisIsDown() {
+        when(stringRedisTemplate.execute(tokenBucket(), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        assertTrue(rateLimiter.tryAcquire("auth", "ip:10.0.0.1"));
+    }
+
+    @Test
+    void filterSkipsExcludedPathsAndUnknownRoutes() {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, properties, new ObjectMapper());
+
+        assertEquals("auth", filter.matchGroup("/auth/login"));
+        assertNull(filter.matchGroup("/auth/.well-known/jwks.json"));
+        assertNull(filter.matchGroup("/api/v1/roles"));
+    }
+
+    private static RedisScript<List<Long>> tokenBucket() {
+        return ArgumentMatchers.any();
+    }
+
+    private void allowInRedis(boolean allowed) {
+        when(stringRedisTemplate.execute(tokenBucket(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(allowed ? 1L : 0L, 10L));
+    }
+}
@@ -0,0 +1,116 @@
+package dev.CaoNguyen_1883.ecommerce.auth.service.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Needs a Redis on localhost:6379 and is skipped otherwise.
+ */
+class RedisTokenServiceTest {
+
+    private static final String NAMESPACE = "test-tokens-" + UUID.randomUUID();
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisTokenService tokens;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (RuntimeException ex) {
+            assumeTrue(false, "Redis not available on localhost:6379");
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        tokens = new RedisTokenService(template, null);
+        ReflectionTestUtils.setField(tokens, "namespace", NAMESPACE);
+        ReflectionTestUtils.setField(tokens, "refreshTokenExpiration", Duration.ofDays(30).toMillis());
+    }
+
+    @Test
+    void concurrentRefreshesRedeemATokenOnce() throws Exception {
+        String userId = UUID.randomUUID().toString();
+        tokens.storeRefreshToken("jti-1", userId);
+
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Callable<Boolean> redeem = () -> {
+                    start.await();
+                    return tokens.deleteRefreshToken(userId, "jti-1");
+                };
+                results.add(executor.submit(redeem));
+            }
+            start.countDown();
+
+            int redeemed = 0;
+            for (Future<Boolean> result : results) {
+                redeemed += result.get() ? 1 : 0;
+            }
+            assertEquals(1, redeemed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs with {@code -Pbenchmark}
+     */
+    @Test
+    @Tag("benchmark")
+    void revokingTenThousandUsersFinishesInSeconds() {
+        int users = 10_000;
+        List<String> userIds = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String userId = UUID.randomUUID().toString();
+            userIds.add(userId);
+            tokens.storeRefreshToken("a-" + i, userId);
+            tokens.storeRefreshToken("b-" + i, userId);
+        }
+
+        long start = System.nanoTime();
+        long removed = tokens.revokeAllRefreshTokens(userIds);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(2L * users, removed);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, () -> users + " users revoked in " + elapsed.toMillis() + " ms");
+        assertFalse(tokens.isRefreshTokenActive(userIds.getFirst(), "a-0"));
+    }
+}
@@ -0,0 +1,92 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.CaoNguyen_1883.ecommerce.user.dto.PermissionDto;
+import dev.CaoNguyen_1883.ecommerce.user.dto.RoleDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and round-trip cost of the cached role list: JSON vs Smile (+ deflate above the threshold).
+ * The timing comparison is tagged {@code benchmark} and runs with {@code -Pbenchmark}.
+ */
+class CompactRedisSerializerBenchmarkTest {
+
+    private static final int ITERATIONS = 5_000;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(
+            new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .activateDefaultTyping(CompactRedisSerializer.TYPE_VALIDATOR,
+                            ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY));
+
+    @Test
+    void smileIsSmallerAndRoundTrips() {
+        List<RoleDto> roles = roles();
+        CompactRedisSerializer compact = new CompactRedisSerializer(1024);
+        CompactRedisSerializer uncompressed = new CompactRedisSerializer(Integer.MAX_VALUE);
+
+        byte[] json = jsonSerializer.serialize(roles);
+        byte[] smile = uncompressed.serialize(roles);
+        byte[] deflated = compact.serialize(roles);
+
+        assertTrue(smile.length < json.length, () -> "smile " + smile.length + " B, json " + json.length + " B");
+        assertTrue(deflated.length < smile.length, () -> "deflated " + deflated.length + " B, smile " + smile.length + " B");
+        assertEquals(roles, compact.deserialize(deflated));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void smileRoundTripIsFasterThanJson() {
+        List<RoleDto> roles = roles();
+
+        long json = roundTrip(jsonSerializer, roles);
+        long smile = roundTrip(new CompactRedisSerializer(Integer.MAX_VALUE), roles);
+
+        assertTrue(smile < json, () -> "smile " + smile + " ns/op, json " + json + " ns/op");
+    }
+
+    private long roundTrip(RedisSerializer<Object> serializer, Object value) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private List<RoleDto> roles() {
+        List<String> names = List.of("user:view", "user:create", "user:update", "user:delete",
+                "product:view", "product:create", "product:update", "product:delete",
+                "order:view", "order:update", "order:approve", "order:cancel",
+                "category:view", "category:create", "category:update", "category:delete",
+                "brand:view", "brand:create", "brand:update", "brand:delete",
+                "review:view", "review:create", "review:delete",
+                "payment:view", "payment:update", "recommendation:view", "analytics:view");
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Set<PermissionDto> permissions = new LinkedHashSet<>();
+        for (String name : names) {
+            permissions.add(new PermissionDto(UUID.nameUUIDFromBytes(name.getBytes()), name,
+                    "Permission " + name, now, "SYSTEM"));
+        }
+        List<RoleDto> roles = new ArrayList<>();
+        for (String role : List.of("ROLE_ADMIN", "ROLE_CUSTOMER", "ROLE_SELLER", "ROLE_STAFF")) {
+            roles.add(new RoleDto(UUID.nameUUIDFromBytes(role.getBytes()), role, role.substring(5),
+                    new HashSet<>(permissions), now, "SYSTEM"));
+        }
+        return roles;
+    }
+}
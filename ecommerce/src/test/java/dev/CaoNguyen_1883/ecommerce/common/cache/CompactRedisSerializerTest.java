@@ -0,0 +1,70 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.CaoNguyen_1883.ecommerce.user.dto.PermissionDto;
+import dev.CaoNguyen_1883.ecommerce.user.dto.RoleDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(256);
+
+    @Test
+    void cacheEnvelopeRoundTripsWithItsValueType() {
+        List<RoleDto> roles = List.of(role("ROLE_ADMIN"), role("ROLE_STAFF"));
+        CacheEnvelope envelope = new CacheEnvelope(new ArrayList<>(roles), 12, 1_700_000_000_000L);
+
+        Object read = serializer.deserialize(serializer.serialize(envelope));
+
+        CacheEnvelope copy = assertInstanceOf(CacheEnvelope.class, read);
+        assertEquals(roles, copy.value());
+        assertEquals(envelope.computeMillis(), copy.computeMillis());
+    }
+
+    @Test
+    void tombstoneRoundTrips() {
+        CacheEnvelope envelope = new CacheEnvelope(new CacheTombstone("Role not found"), 1, 1L);
+
+        assertTrue(CacheTombstone.isTombstone(serializer.deserialize(serializer.serialize(envelope))));
+    }
+
+    @Test
+    void legacyJsonEntriesReadAsMisses() {
+        // What the previous GenericJackson2JsonRedisSerializer(objectMapper) wrote: plain JSON, no type ids
+        GenericJackson2JsonRedisSerializer legacy = new GenericJackson2JsonRedisSerializer(new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+        assertNull(serializer.deserialize(legacy.serialize(List.of(role("ROLE_ADMIN")))));
+    }
+
+    @Test
+    void typeIdsOutsideTheAllowListAreRejected() throws Exception {
+        byte[] payload = new ObjectMapper(new SmileFactory())
+                .writeValueAsBytes(Map.of("@class", "java.lang.ProcessBuilder", "command", List.of("true")));
+        byte[] framed = new byte[3 + payload.length];
+        framed[0] = CompactRedisSerializer.MAGIC;
+        framed[1] = CompactRedisSerializer.FORMAT_SMILE;
+        System.arraycopy(payload, 0, framed, 3, payload.length);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(framed));
+    }
+
+    private static RoleDto role(String name) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Set<PermissionDto> permissions = new HashSet<>(Set.of(
+                new PermissionDto(UUID.nameUUIDFromBytes(name.getBytes()), "user:view", "View users", now, "SYSTEM")));
+        return new RoleDto(UUID.nameUUIDFromBytes((name + "-role").getBytes()), name, name.substring(5), permissions,
+                now, "SYSTEM");
+    }
+}
@@ -0,0 +1,96 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Throughput of the transaction-aware template inside a transaction vs pipelined bulk operations.
+ * Needs a Redis on localhost:6379 and is skipped otherwise; runs with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RedisBulkOperationsBenchmarkTest {
+
+    private static final int KEYS = 10_000;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(256));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            connectionFactory.getConnection().ping();
+        } catch (RuntimeException ex) {
+            assumeTrue(false, "Redis not available on localhost:6379");
+        }
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void pipelinedBulkBeatsTransactionalTemplate() {
+        RedisTemplate<String, Object> transactional = template(true);
+        RedisTemplate<String, Object> plain = template(false);
+        RedisBulkOperations bulk = new RedisBulkOperations(plain);
+
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            entries.put("bench:bulk:" + i, "value-" + i);
+        }
+
+        long start = System.nanoTime();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            entries.forEach((key, value) -> transactional.opsForValue().set(key, value, Duration.ofMinutes(1)));
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        long transactionalNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        bulk.multiSet(entries, Duration.ofMinutes(1));
+        Map<String, Object> read = bulk.multiGet(entries.keySet());
+        long bulkNanos = System.nanoTime() - start;
+
+        assertEquals(KEYS, read.size());
+        assertTrue(bulkNanos < transactionalNanos, () -> KEYS + " keys: pipelined set+get " + bulkNanos / 1_000_000
+                + " ms, transactional template " + transactionalNanos / 1_000_000 + " ms");
+        assertEquals(KEYS, bulk.deleteAll(entries.keySet()));
+    }
+
+    private RedisTemplate<String, Object> template(boolean transactionSupport) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setEnableTransactionSupport(transactionSupport);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RedisKeysTest {
+
+    @Test
+    void sameIdAcrossCachesLandsInOneSlot() {
+        HashTaggedRedisCacheManager.HashTaggedRedisCache details = cache("productDetails");
+        HashTaggedRedisCacheManager.HashTaggedRedisCache inventory = cache("inventory");
+        UUID productId = UUID.randomUUID();
+
+        String detailsKey = details.createCacheKey(productId);
+        String inventoryKey = inventory.createCacheKey(productId);
+
+        assertEquals("ecommerce:productDetails::{" + productId + "}", detailsKey);
+        assertEquals(RedisKeys.slot(detailsKey), RedisKeys.slot(inventoryKey));
+    }
+
+    @Test
+    void userTokenKeysShareTheUserSlot() {
+        String tag = RedisKeys.hashTag("user:" + UUID.randomUUID());
+        String index = "ecommerce:" + tag + ":tokens";
+        List<String> refreshKeys = List.of("ecommerce:" + tag + ":refresh:a", "ecommerce:" + tag + ":refresh:b");
+
+        Map<Integer, List<String>> slots = RedisKeys.bySlot(List.of(index, refreshKeys.get(0), refreshKeys.get(1)));
+
+        assertEquals(1, slots.size());
+    }
+
+    @Test
+    void bySlotSplitsUnrelatedKeys() {
+        List<String> keys = List.of("ecommerce:roles::{a}", "ecommerce:roles::{b}", "ecommerce:roles::{c}");
+
+        Map<Integer, List<String>> slots = RedisKeys.bySlot(keys);
+
+        assertEquals(keys.size(), slots.values().stream().mapToInt(List::size).sum());
+        slots.forEach((slot, slotKeys) -> slotKeys.forEach(key -> assertEquals(slot, RedisKeys.slot(key))));
+    }
+
+    private static HashTaggedRedisCacheManager.HashTaggedRedisCache cache(String name) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("ecommerce:");
+        return new HashTaggedRedisCacheManager.HashTaggedRedisCache(name, mock(RedisCacheWriter.class), configuration);
+    }
+}
@@ -0,0 +1,143 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StampedeProtectedCacheTest {
+
+    private static final Duration LOCK_TTL = Duration.ofSeconds(5);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final CacheLoadCoordinator coordinator = new CacheLoadCoordinator(redis, "lock:", LOCK_TTL, 1.0, 1);
+
+    StampedeProtectedCacheTest() {
+        when(redis.opsForValue()).thenReturn(valueOps);
+    }
+
+    @AfterEach
+    void shutdown() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    void loadsLocallyWithoutWaitingWhenRedisIsDown() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("connection refused");
+        Cache delegate = mock(Cache.class);
+        when(delegate.getName()).thenReturn("roles");
+        when(delegate.get(any())).thenThrow(down);
+        doThrow(down).when(delegate).put(any(), any());
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenThrow(down);
+        StampedeProtectedCache cache = cache(delegate);
+
+        long start = System.nanoTime();
+        assertEquals("admin", cache.get("ROLE_ADMIN", () -> "admin"));
+        assertEquals("staff", cache.get("ROLE_STAFF", () -> "staff"));
+        assertNull(cache.get("ROLE_ADMIN"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(LOCK_TTL.dividedBy(10)) < 0);
+        // Marked down after the first failure: later calls skip Redis instead of hitting its timeout again
+        verify(delegate, times(1)).get(any());
+    }
+
+    @Test
+    void servesAndFillsTheLocalTierWhileRedisIsDown() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("connection refused");
+        Cache remote = mock(Cache.class);
+        when(remote.getName()).thenReturn("roles");
+        when(remote.get(any())).thenThrow(down);
+        doThrow(down).when(remote).put(any(), any());
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenThrow(down);
+        TwoTierCache tiered = new TwoTierCache("roles", Caffeine.newBuilder().build(), remote,
+                mock(CacheInvalidationBus.class));
+        StampedeProtectedCache cache = cache(tiered);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            return "admin";
+        };
+
+        assertEquals("admin", cache.get("ROLE_ADMIN", loader));
+        assertEquals("admin", cache.get("ROLE_ADMIN", loader));
+
+        assertEquals(1, loads.get());
+        assertEquals("admin", cache.get("ROLE_ADMIN").get());
+    }
+
+    @Test
+    void failedEarlyRefreshIsCounted() throws Exception {
+        ConcurrentMapCache delegate = new ConcurrentMapCache("roles");
+        delegate.put("ROLE_ADMIN", new CacheEnvelope("stale", 10, 0));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StampedeProtectedCache cache = new StampedeProtectedCache(delegate, Duration.ofMinutes(10), coordinator,
+                new CacheMetrics(registry, 10).forCache("roles"), true,
+                new CacheTagIndex(redis, "tag:", Duration.ofMinutes(10)));
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertEquals("stale", cache.get("ROLE_ADMIN", () -> {
+            throw new IllegalStateException("no transaction on the refresh thread");
+        }));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("cache.refresh.failures", "cache", "roles").count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, registry.counter("cache.refresh.failures", "cache", "roles").count());
+        assertEquals("stale", cache.get("ROLE_ADMIN").get());
+    }
+
+    @Test
+    void missNeverJoinsAnEarlyRefreshThatLostTheLock() throws Exception {
+        ConcurrentMapCache delegate = new ConcurrentMapCache("roles");
+        // Stored long ago: every hit triggers an early refresh
+        delegate.put("ROLE_ADMIN", new CacheEnvelope("stale", 10, 0));
+        StampedeProtectedCache cache = cache(delegate);
+
+        CountDownLatch refreshLocking = new CountDownLatch(1);
+        CountDownLatch missLocking = new CountDownLatch(1);
+        AtomicInteger lockCalls = new AtomicInteger();
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            if (lockCalls.incrementAndGet() == 1) {
+                // The refresh: another node holds the lock, but only answer once the miss below is underway
+                refreshLocking.countDown();
+                missLocking.await(5, TimeUnit.SECONDS);
+                return false;
+            }
+            missLocking.countDown();
+            return true;
+        });
+
+        assertEquals("stale", cache.get("ROLE_ADMIN", () -> "refreshed"));
+        assertTrue(refreshLocking.await(5, TimeUnit.SECONDS));
+        delegate.evict("ROLE_ADMIN");
+
+        Object loaded = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.get("ROLE_ADMIN", () -> "fresh"));
+
+        assertEquals("fresh", loaded);
+        assertEquals(2, lockCalls.get());
+    }
+
+    private StampedeProtectedCache cache(Cache delegate) {
+        return new StampedeProtectedCache(delegate, Duration.ofMinutes(10), coordinator,
+                new CacheMetrics(new SimpleMeterRegistry(), 10).forCache("roles"), true,
+                new CacheTagIndex(redis, "tag:", Duration.ofMinutes(10)));
+    }
+}
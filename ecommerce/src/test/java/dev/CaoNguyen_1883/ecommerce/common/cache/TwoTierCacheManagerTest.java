@@ -0,0 +1,35 @@
+package dev.CaoNguyen_1883.ecommerce.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheManagerTest {
+
+    @Test
+    void cachesWithAnL1TierUseTheTieredRemoteManager() {
+        CacheManager replicaReads = new ConcurrentMapCacheManager("roles", "products");
+        CacheManager masterReads = new ConcurrentMapCacheManager("roles", "products");
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(redis, "lock:", Duration.ofSeconds(5), 1.0, 1);
+        TwoTierCacheManager manager = new TwoTierCacheManager(replicaReads, masterReads,
+                Map.of("roles", new TwoTierCacheManager.LocalCacheSpec(100, Duration.ofMinutes(10))),
+                mock(CacheInvalidationBus.class), coordinator, name -> Duration.ofMinutes(30),
+                new CacheMetrics(new SimpleMeterRegistry(), 10), Map.of(),
+                new CacheTagIndex(redis, "tag:", Duration.ofMinutes(10)));
+        try {
+            assertSame(masterReads.getCache("roles").getNativeCache(), manager.getCache("roles").getNativeCache());
+            assertSame(replicaReads.getCache("products").getNativeCache(), manager.getCache("products").getNativeCache());
+        } finally {
+            coordinator.shutdown();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package dev.CaoNguyen_1883.ecommerce.common.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Routing against two separate in-memory databases; each one answers "which node am I" so the test can see
+ * where a transaction actually ran. Replica lag is simulated by a value the probe reads from the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+    private static final Duration STICKY_WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private FlakyDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private LazyConnectionDataSourceProxy dataSource;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = database();
+        replica = new FlakyDataSource(database());
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replication (lag_seconds INT)");
+        replicaJdbc.update("INSERT INTO replication VALUES (0)");
+
+        ReplicaLagProbe probe = connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT lag_seconds FROM replication")) {
+                rs.next();
+                return Duration.ofSeconds(rs.getInt(1));
+            }
+        };
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), probe, MAX_LAG,
+                new ReadYourWritesTracker(STICKY_WINDOW, 100, nanos::get), new SimpleMeterRegistry());
+        routing.checkReplicas();
+
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", node(true));
+        assertEquals("primary", node(false));
+        // Outside a transaction nothing is known about intent
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotationUntilItCatchesUp() {
+        replicaJdbc.update("UPDATE replication SET lag_seconds = 60");
+        routing.checkReplicas();
+        assertEquals("primary", node(true));
+        assertFalse(routing.replicaStatus().get("replica-0").healthy());
+
+        replicaJdbc.update("UPDATE replication SET lag_seconds = 1");
+        routing.checkReplicas();
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        replica.down = true;
+        // Still in rotation: the failed connection attempt itself falls back
+        assertEquals("primary", node(true));
+        assertFalse(routing.replicaStatus().get("replica-0").healthy());
+
+        routing.checkReplicas();
+        assertEquals("primary", node(true));
+
+        replica.down = false;
+        routing.checkReplicas();
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryDuringTheStickyWindow() {
+        authenticate("alice");
+        write(true);
+        assertEquals("primary", node(true));
+
+        authenticate("bob");
+        assertEquals("replica", node(true));
+
+        authenticate("alice");
+        nanos.addAndGet(STICKY_WINDOW.plusSeconds(1).toNanos());
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    void rolledBackWriteIsNotSticky() {
+        authenticate("alice");
+        write(false);
+
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    void cacheFillsReadFromThePrimary() throws Exception {
+        assertEquals("primary", ReplicaRoutingDataSource.readFromPrimary(() -> node(true)));
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    void jpaTransactionsAreRoutedByTheirReadOnlyFlag() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(ReplicaRoutingDataSource.class.getPackageName());
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(entityManagerFactory);
+            for (boolean readOnly : new boolean[]{true, false}) {
+                TransactionTemplate transaction = new TransactionTemplate(jpaTransactionManager);
+                transaction.setReadOnly(readOnly);
+                String node = transaction.execute(status -> (String) entityManager
+                        .createNativeQuery("SELECT name FROM node").getSingleResult());
+                assertEquals(readOnly ? "replica" : "primary", node);
+            }
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private String node(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private void write(boolean commit) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            if (!commit) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_USER"));
+    }
+
+    private static DriverManagerDataSource database() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    private static final class FlakyDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        FlakyDataSource(DriverManagerDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
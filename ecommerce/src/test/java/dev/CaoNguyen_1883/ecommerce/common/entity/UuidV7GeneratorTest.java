@@ -0,0 +1,36 @@
+package dev.CaoNguyen_1883.ecommerce.common.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void idsAreVersion7AndStrictlyIncreasingAsUnsignedBytes() {
+        UUID previous = UuidV7Generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = UuidV7Generator.next();
+            assertEquals(7, current.version());
+            assertEquals(2, current.variant());
+            // Unsigned comparison of the leading 8 bytes = BINARY(16) index order
+            UUID before = previous;
+            assertTrue(Long.compareUnsigned(current.getMostSignificantBits(), before.getMostSignificantBits()) > 0,
+                    () -> "not increasing: " + before + " -> " + current);
+            previous = current;
+        }
+    }
+
+    @Test
+    void timestampIsCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+
+        // The sequence can borrow a millisecond or so from the future under heavy load
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1000);
+    }
+}
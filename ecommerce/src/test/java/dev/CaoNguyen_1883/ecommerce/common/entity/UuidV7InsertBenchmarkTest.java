@@ -0,0 +1,109 @@
+package dev.CaoNguyen_1883.ecommerce.common.entity;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Insert throughput and index size of random v4 vs time-ordered v7 BINARY(16) primary keys in InnoDB.
+ * Needs a scratch MySQL schema: set BENCH_DB_URL (plus BENCH_DB_USERNAME / BENCH_DB_PASSWORD);
+ * skipped otherwise. Row count via -Dbenchmark.rows (default 10M; the gap only shows once the index
+ * outgrows the buffer pool). Runs with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class UuidV7InsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private static String url;
+    private static String username;
+    private static String password;
+
+    @BeforeAll
+    static void requireDatabase() {
+        url = System.getenv("BENCH_DB_URL");
+        username = System.getenv().getOrDefault("BENCH_DB_USERNAME", "root");
+        password = System.getenv().getOrDefault("BENCH_DB_PASSWORD", "");
+        assumeTrue(url != null, "BENCH_DB_URL not set");
+    }
+
+    @Test
+    void timeOrderedKeysInsertFasterThanRandomKeys() throws SQLException {
+        long rows = Long.getLong("benchmark.rows", 10_000_000L);
+
+        Result random = run("bench_uuid_v4", rows, UUID::randomUUID);
+        Result ordered = run("bench_uuid_v7", rows, UuidV7Generator::next);
+
+        String summary = String.format("%d rows: v4 %,d rows/s, %,d MB data+index; v7 %,d rows/s, %,d MB data+index",
+                rows, random.rowsPerSecond(), random.megabytes(), ordered.rowsPerSecond(), ordered.megabytes());
+        assertTrue(ordered.rowsPerSecond() > random.rowsPerSecond(), summary);
+        // Appends fill pages instead of splitting them
+        assertTrue(ordered.megabytes() <= random.megabytes(), summary);
+    }
+
+    private Result run(String table, long rows, Supplier<UUID> ids) throws SQLException {
+        // rewriteBatchedStatements turns each batch into one multi-row INSERT
+        try (Connection connection = DriverManager.getConnection(url + separator() + "rewriteBatchedStatements=true",
+                username, password)) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("DROP TABLE IF EXISTS " + table);
+                ddl.execute("CREATE TABLE " + table + " (id BINARY(16) NOT NULL PRIMARY KEY, "
+                        + "created_at DATETIME(6) NOT NULL, email VARCHAR(255) NOT NULL, "
+                        + "KEY idx_email (email)) ENGINE=InnoDB");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + table + " (id, created_at, email) VALUES (?, NOW(6), ?)")) {
+                for (long i = 1; i <= rows; i++) {
+                    insert.setBytes(1, toBytes(ids.get()));
+                    insert.setString(2, "user" + i + "@example.com");
+                    insert.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            long bytes = 0;
+            try (Statement stats = connection.createStatement()) {
+                stats.execute("ANALYZE TABLE " + table);
+                try (ResultSet size = stats.executeQuery("SELECT data_length + index_length FROM information_schema.TABLES "
+                        + "WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                    if (size.next()) {
+                        bytes = size.getLong(1);
+                    }
+                }
+                stats.execute("DROP TABLE " + table);
+            }
+            return new Result(rows * 1_000_000_000L / Math.max(1, elapsedNanos), bytes / (1024 * 1024));
+        }
+    }
+
+    private static String separator() {
+        return url.contains("?") ? "&" : "?";
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private record Result(long rowsPerSecond, long megabytes) {
+    }
+}
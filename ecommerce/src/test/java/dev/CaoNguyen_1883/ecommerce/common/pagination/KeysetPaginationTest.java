@@ -0,0 +1,114 @@
+package dev.CaoNguyen_1883.ecommerce.common.pagination;
+
+import dev.CaoNguyen_1883.ecommerce.common.entity.BaseEntity;
+import dev.CaoNguyen_1883.ecommerce.common.exception.BadRequestException;
+import dev.CaoNguyen_1883.ecommerce.common.response.CursorPage;
+import dev.CaoNguyen_1883.ecommerce.config.JpaConfig;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
+import dev.CaoNguyen_1883.ecommerce.user.repository.PermissionRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks a listing page by page in both directions. All rows share one createdAt so every seek
+ * is decided by the id tie-breaker.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaConfig.class)
+class KeysetPaginationTest {
+
+    private static final int ROWS = 25;
+    private static final int PAGE = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            Permission permission = new Permission();
+            permission.setName("perm-" + i);
+            entityManager.persist(permission);
+        }
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE permissions SET created_at = TIMESTAMP '2025-01-01 00:00:00.123456'")
+                .executeUpdate();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void forwardWalkVisitsEveryRowOnceWithOneStatementPerPage() {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Permission> page = permissionRepository.findPage(cursor, PAGE);
+            page.getItems().forEach(p -> seen.add(p.getId()));
+            assertEquals(pages > 0, page.isHasPrevious());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(ROWS, seen.size());
+        assertEquals(ROWS, new HashSet<>(seen).size());
+        // No COUNT query, no OFFSET: the deepest page costs what the first one does
+        assertEquals(pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void backwardCursorReturnsThePreviousPage() {
+        CursorPage<Permission> first = permissionRepository.findPage(null, PAGE);
+        CursorPage<Permission> second = permissionRepository.findPage(first.getNextCursor(), PAGE);
+        CursorPage<Permission> third = permissionRepository.findPage(second.getNextCursor(), PAGE);
+        assertFalse(third.isHasNext());
+        assertEquals(ROWS - 2 * PAGE, third.getItems().size());
+
+        CursorPage<Permission> back = permissionRepository.findPage(third.getPrevCursor(), PAGE);
+        assertEquals(ids(second), ids(back));
+        assertTrue(back.isHasNext());
+
+        CursorPage<Permission> start = permissionRepository.findPage(back.getPrevCursor(), PAGE);
+        assertEquals(ids(first), ids(start));
+        assertFalse(start.isHasPrevious());
+        assertNull(start.getPrevCursor());
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertEquals(1, permissionRepository.findPage(null, 0).getItems().size());
+        assertEquals(KeysetRepository.MAX_PAGE_SIZE, permissionRepository.findPage(null, 10_000).getSize());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(BadRequestException.class, () -> permissionRepository.findPage("not-a-cursor", PAGE));
+    }
+
+    private static List<UUID> ids(CursorPage<? extends BaseEntity> page) {
+        return page.getItems().stream().map(BaseEntity::getId).toList();
+    }
+}
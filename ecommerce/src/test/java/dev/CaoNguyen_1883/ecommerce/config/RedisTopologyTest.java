@@ -0,0 +1,187 @@
+package dev.CaoNguyen_1883.ecommerce.config;
+
+import io.lettuce.core.ReadFrom;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Master/replica topology against two local redis-server processes.
+ * Needs redis-server on the PATH and is skipped otherwise.
+ */
+class RedisTopologyTest {
+
+    private static final List<Process> servers = new ArrayList<>();
+    private static int masterPort;
+    private static int replicaPort;
+
+    @BeforeAll
+    static void startServers() throws Exception {
+        masterPort = freePort();
+        replicaPort = freePort();
+        try {
+            servers.add(redisServer(masterPort));
+            servers.add(redisServer(replicaPort, "--replicaof", "127.0.0.1", String.valueOf(masterPort)));
+        } catch (IOException ex) {
+            assumeTrue(false, "redis-server not available");
+        }
+        awaitReplicaLink();
+    }
+
+    @AfterAll
+    static void stopServers() {
+        servers.forEach(Process::destroy);
+    }
+
+    @Test
+    void writesGoToMasterAndReadsToReplica() {
+        RedisTopologyProperties topology = new RedisTopologyProperties();
+        topology.setMode(RedisTopologyProperties.Mode.MASTER_REPLICA);
+        topology.setReplicas(List.of("127.0.0.1:" + replicaPort));
+        topology.setReadFrom("replica");
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                RedisConfig.redisConfiguration(topology, "127.0.0.1", masterPort, null),
+                RedisConfig.clientConfiguration(topology, Duration.ofSeconds(2)));
+        factory.afterPropertiesSet();
+        factory.start();
+        try {
+            StringRedisTemplate template = new StringRedisTemplate(factory);
+            long masterGets = getCalls(masterPort);
+            long replicaGets = getCalls(replicaPort);
+            template.opsForValue().set("topology:key", "value");
+
+            String read = null;
+            for (int attempt = 0; attempt < 50 && read == null; attempt++) {
+                read = template.opsForValue().get("topology:key");
+                sleep(20);
+            }
+            assertEquals("value", read);
+            assertTrue(getCalls(replicaPort) > replicaGets, "GET should have been served by the replica");
+            assertEquals(masterGets, getCalls(masterPort), "master should not see reads");
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void upstreamConnectionReadsFromMasterDespiteReadFromPolicy() {
+        RedisTopologyProperties topology = new RedisTopologyProperties();
+        topology.setMode(RedisTopologyProperties.Mode.MASTER_REPLICA);
+        topology.setReplicas(List.of("127.0.0.1:" + replicaPort));
+        topology.setReadFrom("replica");
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                RedisConfig.redisConfiguration(topology, "127.0.0.1", masterPort, null),
+                RedisConfig.clientConfiguration(topology, Duration.ofSeconds(2), ReadFrom.UPSTREAM));
+        factory.afterPropertiesSet();
+        factory.start();
+        try {
+            StringRedisTemplate template = new StringRedisTemplate(factory);
+            long replicaGets = getCalls(replicaPort);
+            template.opsForValue().set("topology:denylist", "1");
+
+            // Read straight after the write, no waiting for replication
+            assertEquals("1", template.opsForValue().get("topology:denylist"));
+            assertEquals(replicaGets, getCalls(replicaPort), "replica should not see reads");
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void pooledConfigurationWorksForDedicatedConnections() {
+        RedisTopologyProperties topology = new RedisTopologyProperties();
+        topology.getPool().setEnabled(true);
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                RedisConfig.redisConfiguration(topology, "127.0.0.1", masterPort, null),
+                RedisConfig.clientConfiguration(topology, Duration.ofSeconds(2)));
+        factory.afterPropertiesSet();
+        factory.start();
+        try {
+            StringRedisTemplate template = new StringRedisTemplate(factory);
+            template.setEnableTransactionSupport(true);
+            template.opsForValue().set("topology:pooled", "1");
+            assertEquals("1", template.opsForValue().get("topology:pooled"));
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static long getCalls(int port) {
+        LettuceConnectionFactory direct = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        direct.afterPropertiesSet();
+        direct.start();
+        try {
+            Properties stats = direct.getConnection().serverCommands().info("commandstats");
+            String line = stats != null ? stats.getProperty("cmdstat_get") : null;
+            if (line == null) {
+                return 0;
+            }
+            // calls=N,usec=...
+            return Long.parseLong(line.substring("calls=".length(), line.indexOf(',')));
+        } finally {
+            direct.destroy();
+        }
+    }
+
+    private static void awaitReplicaLink() {
+        LettuceConnectionFactory direct = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", replicaPort));
+        direct.afterPropertiesSet();
+        direct.start();
+        try {
+            for (int attempt = 0; attempt < 100; attempt++) {
+                try {
+                    Properties replication = direct.getConnection().serverCommands().info("replication");
+                    if (replication != null && "up".equals(replication.getProperty("master_link_status"))) {
+                        return;
+                    }
+                } catch (RuntimeException ignored) {
+                    // Server still starting
+                }
+                sleep(50);
+            }
+            fail("replica did not connect to master");
+        } finally {
+            direct.destroy();
+        }
+    }
+
+    private static Process redisServer(int port, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of("redis-server", "--port", String.valueOf(port),
+                "--save", "", "--appendonly", "no"));
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.CaoNguyen_1883.ecommerce.seed;
+
+import dev.CaoNguyen_1883.ecommerce.config.JpaConfig;
+import dev.CaoNguyen_1883.ecommerce.user.component.RbacCatalogListener;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static dev.CaoNguyen_1883.ecommerce.seed.RbacCatalog.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({JpaConfig.class, RbacSeeder.class, RbacCatalogListener.class})
+class RbacSeederTest {
+
+    @Autowired
+    private RbacSeeder seeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void seedsDeclaredCatalogIntoEmptyDatabase() {
+        RbacSeeder.Result result = seeder.seed(RBACDataInitializer.CATALOG);
+
+        int permissions = RBACDataInitializer.CATALOG.permissions().size();
+        assertFalse(result.skipped());
+        assertEquals(permissions, result.permissionsCreated());
+        assertEquals(4, result.rolesCreated());
+        // ADMIN gets everything, plus the explicit grants of STAFF (6), SELLER (7) and CUSTOMER (5)
+        assertEquals(permissions + 6 + 7 + 5, result.grantsAdded());
+        assertEquals(permissions + 18, count("role_permissions"));
+    }
+
+    @Test
+    void unchangedCatalogIsSkipped() {
+        seeder.seed(RBACDataInitializer.CATALOG);
+
+        assertTrue(seeder.seed(RBACDataInitializer.CATALOG).skipped());
+    }
+
+    @Test
+    void rowsDeletedByHandAreRestoredDespiteUnchangedFingerprint() {
+        seeder.seed(RBACDataInitializer.CATALOG);
+        int grants = count("role_permissions");
+        jdbcTemplate.update("DELETE FROM role_permissions WHERE role_id = (SELECT id FROM roles WHERE name = 'ROLE_STAFF')");
+        jdbcTemplate.update("DELETE FROM roles WHERE name = 'ROLE_STAFF'");
+
+        RbacSeeder.Result result = seeder.seed(RBACDataInitializer.CATALOG);
+
+        assertEquals(new RbacSeeder.Result(false, 0, 1, 0, 6, 0), result);
+        assertEquals(grants, count("role_permissions"));
+        assertTrue(seeder.seed(RBACDataInitializer.CATALOG).skipped());
+    }
+
+    @Test
+    void changedCatalogAppliesOnlyTheDifference() {
+        seeder.seed(new RbacCatalog(
+                List.of(permission("a:view", "View a"), permission("b:view", "View b")),
+                List.of(role("ROLE_A", "A", "a:view", "b:view"))));
+
+        RbacSeeder.Result result = seeder.seed(new RbacCatalog(
+                List.of(permission("a:view", "View a"), permission("b:view", "View b"), permission("c:view", "View c")),
+                List.of(role("ROLE_A", "A", "a:view", "c:view"))));
+
+        assertEquals(new RbacSeeder.Result(false, 1, 0, 0, 1, 1), result);
+        assertEquals(3, count("permissions"));
+        assertEquals(2, count("role_permissions"));
+    }
+
+    @Test
+    void existingRowsAreReusedAndUpdatedInPlace() {
+        Permission existing = new Permission();
+        existing.setName("a:view");
+        existing.setDescription("old");
+        entityManager.persistAndFlush(existing);
+
+        RbacSeeder.Result result = seeder.seed(new RbacCatalog(
+                List.of(permission("a:view", "View a")),
+                List.of(role("ROLE_A", "A", ALL))));
+
+        assertEquals(new RbacSeeder.Result(false, 0, 1, 1, 1, 0), result);
+        assertEquals(1, count("permissions"));
+        assertEquals("View a", jdbcTemplate.queryForObject(
+                "SELECT description FROM permissions WHERE name = 'a:view'", String.class));
+    }
+
+    @Test
+    void rolesMayOnlyReferenceDeclaredPermissions() {
+        assertThrows(IllegalArgumentException.class, () -> new RbacCatalog(
+                List.of(permission("a:view", "View a")),
+                List.of(role("ROLE_A", "A", "b:view"))));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,89 @@
+package dev.CaoNguyen_1883.ecommerce.user.component;
+
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import dev.CaoNguyen_1883.ecommerce.user.repository.PermissionRepository;
+import dev.CaoNguyen_1883.ecommerce.user.repository.RoleRepository;
+import dev.CaoNguyen_1883.ecommerce.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PermissionRegistryTest {
+
+    private static final String CHANNEL = "test:rbac-invalidation";
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final PermissionRepository permissionRepository = mock(PermissionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+
+    @Test
+    void invalidationsAreBroadcastAndAppliedFromOtherNodes() {
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(Role.builder().name(Role.ADMIN).build()));
+        when(permissionRepository.findAll()).thenReturn(List.of());
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findRoleNamesByUserId(userId)).thenReturn(Set.of(Role.ADMIN));
+
+        PermissionRegistry registry = registry(Duration.ofMinutes(15));
+        MessageListener listener = listener();
+        registry.hasRole(userId, Role.ADMIN);
+        registry.invalidate();
+        registry.hasRole(userId, Role.ADMIN);
+
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redis).convertAndSend(eq(CHANNEL), published.capture());
+
+        // Our own broadcast coming back is ignored; another node's one marks the catalog stale
+        listener.onMessage(message(published.getValue()), null);
+        registry.hasRole(userId, Role.ADMIN);
+        listener.onMessage(message("other-node *"), null);
+        registry.hasRole(userId, Role.ADMIN);
+
+        verify(permissionRepository, times(3)).findAll();
+        listener.onMessage(message("other-node " + userId), null);
+        registry.hasRole(userId, Role.ADMIN);
+        verify(userRepository, times(4)).findRoleNamesByUserId(userId);
+    }
+
+    @Test
+    void snapshotIsRebuiltOnceItOutlivesTheTtlEvenWithoutABroadcast() {
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of());
+        when(permissionRepository.findAll()).thenReturn(List.of());
+        PermissionRegistry registry = registry(Duration.ZERO);
+
+        registry.hasPermission(UUID.randomUUID(), "user:view");
+        registry.hasPermission(UUID.randomUUID(), "user:view");
+
+        verify(permissionRepository, times(2)).findAll();
+    }
+
+    private PermissionRegistry registry(Duration ttl) {
+        return new PermissionRegistry(roleRepository, permissionRepository, userRepository, redis, container,
+                "test", 100, ttl);
+    }
+
+    private MessageListener listener() {
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(container).addMessageListener(listener.capture(), eq(new ChannelTopic(CHANNEL)));
+        return listener.getValue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
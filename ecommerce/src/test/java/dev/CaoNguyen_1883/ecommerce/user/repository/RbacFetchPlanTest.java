@@ -0,0 +1,111 @@
+package dev.CaoNguyen_1883.ecommerce.user.repository;
+
+import dev.CaoNguyen_1883.ecommerce.config.JpaConfig;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Permission;
+import dev.CaoNguyen_1883.ecommerce.user.entity.Role;
+import dev.CaoNguyen_1883.ecommerce.user.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The RBAC read paths must load their whole graph in a fixed number of statements,
+ * however many roles and permissions there are.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(JpaConfig.class)
+class RbacFetchPlanTest {
+
+    private static final int ROLES = 5;
+    private static final int PERMISSIONS_PER_ROLE = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private UUID roleId;
+    private UUID userId;
+
+    @BeforeEach
+    void seed() {
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < ROLES; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                Permission permission = new Permission();
+                permission.setName("perm-" + r + "-" + p);
+                permissions.add(entityManager.persist(permission));
+            }
+            Role role = new Role();
+            role.setName("role-" + r);
+            role.setPermissions(permissions);
+            roles.add(entityManager.persist(role));
+            roleId = role.getId();
+        }
+
+        User user = new User();
+        user.setEmail("fetch-plan@example.com");
+        user.setRoles(roles);
+        userId = entityManager.persist(user).getId();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allRolesWithPermissionsInOneStatement() {
+        List<Role> roles = roleRepository.findAllWithPermissions();
+
+        assertEquals(ROLES, roles.size());
+        roles.forEach(role -> assertEquals(PERMISSIONS_PER_ROLE, role.getPermissions().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singleRoleWithPermissionsInOneStatement() {
+        Role role = roleRepository.findWithPermissionsById(roleId).orElseThrow();
+
+        role.getPermissions().forEach(Permission::getName);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userWithRolesAndPermissionsInOneStatement() {
+        User user = userRepository.findWithRolesAndPermissionsById(userId).orElseThrow();
+
+        assertEquals(ROLES, user.getRoles().size());
+        user.getRoles().forEach(role -> assertEquals(PERMISSIONS_PER_ROLE, role.getPermissions().size()));
+        assertTrue(user.hasPermission("perm-0-0"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void plainFindAllIsNPlusOne() {
+        // Documents the regression the fetch plans guard against
+        roleRepository.findAll().forEach(role -> role.getPermissions().size());
+
+        assertEquals(1 + ROLES, statistics.getPrepareStatementCount());
+    }
+}